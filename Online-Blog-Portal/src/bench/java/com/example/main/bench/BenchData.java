@@ -0,0 +1,75 @@
+package com.example.main.bench;
+
+import com.example.main.entity.Post;
+import com.example.main.entity.PostImage;
+import com.example.main.entity.PostImageVariant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic fixtures shared by the benchmarks. */
+public final class BenchData {
+
+	private static final String[] WORDS = { "java", "spring", "blog", "database", "index", "query", "cache",
+			"performance", "server", "client", "thread", "memory", "latency", "request", "response", "design" };
+
+	private BenchData() {
+	}
+
+	/** Configured like the application's mapper (ISO dates, java.time support). */
+	public static ObjectMapper objectMapper() {
+		return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+	}
+
+	public static String text(Random random, int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return sb.toString().trim();
+	}
+
+	/** A published post of roughly {@code contentWords * 7} characters with {@code images} images. */
+	public static Post post(long id, Random random, int contentWords, int images) {
+		OffsetDateTime at = OffsetDateTime.parse("2025-01-01T08:00:00Z").plusHours(id);
+		Post post = new Post();
+		post.setPostId(id);
+		post.setAuthorId(1 + id % 50);
+		post.setTitle(text(random, 8));
+		post.setContent("<p>" + text(random, contentWords) + "</p>");
+		post.setExcerpt(post.getContent().substring(3, Math.min(203, post.getContent().length())));
+		post.setStatus((short) 1);
+		post.setCategory(WORDS[(int) (id % WORDS.length)]);
+		post.setFeatured(id % 10 == 0);
+		post.setCreatedAt(at);
+		post.setPublishedAt(at);
+		post.setUpdatedAt(at);
+		post.setVersion(3L);
+		for (int i = 0; i < images; i++) {
+			PostImage image = new PostImage(post, "/uploads/" + id + "-" + i + ".jpg");
+			image.setId(id * 10 + i);
+			post.getImages().add(image);
+		}
+		post.setThumbnailUrl(images > 0 ? post.getImages().get(0).getImageUrl() : null);
+		return post;
+	}
+
+	/** The thumbnail and the three responsive widths for every image of {@code post}. */
+	public static List<PostImageVariant> variants(Post post) {
+		List<PostImageVariant> variants = new ArrayList<>();
+		for (PostImage image : post.getImages()) {
+			String base = image.getImageUrl().replace(".jpg", "");
+			variants.add(new PostImageVariant(image, PostImageVariant.KIND_THUMBNAIL, 400, 250, base + "-thumb.jpg"));
+			for (int w : new int[] { 480, 960, 1600 }) {
+				variants.add(new PostImageVariant(image, "w" + w, w, w * 2 / 3, base + "-w" + w + ".jpg"));
+			}
+		}
+		return variants;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.main.bench;
+
+import com.example.main.config.JwtUtil;
+import com.example.main.config.VerifiedClaims;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue (login) and verification (every authenticated request). {@code verifyCached} is the
+ * steady state of a returning client, including cutting the token out of the header as the filter
+ * does (a fresh string, so its hash code is computed again); {@code parseUncached} is what a
+ * first-seen token costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+	private String header;
+
+	@Setup
+	public void setup() {
+		jwtUtil = new JwtUtil();
+		token = jwtUtil.generateToken(42L, "bench@example.com", (short) 0, 3);
+		header = "Bearer " + token;
+		jwtUtil.verify(token);
+	}
+
+	@Benchmark
+	public String generate() {
+		return jwtUtil.generateToken(42L, "bench@example.com", (short) 0, 3);
+	}
+
+	@Benchmark
+	public VerifiedClaims verifyCached() {
+		return jwtUtil.verify(header.substring(7));
+	}
+
+	@Benchmark
+	public Claims parseUncached() {
+		return jwtUtil.extractClaim(token, c -> c);
+	}
+}
@@ -0,0 +1,134 @@
+package com.example.main.bench;
+
+import com.example.main.search.TextAnalyzer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the tsvector/GIN search against the naive ILIKE scan it replaces, printing p50/p95 per
+ * query. Needs a PostgreSQL database with the SEARCH section of database.txt applied; works on a
+ * temp table so real posts are untouched. Not a JMH benchmark (the cost is in the database, not
+ * the JVM); run it through the bench profile with the connection as arguments:
+ *
+ * mvn -Pbench test-compile exec:exec -Dbench.main=com.example.main.bench.PostgresSearchComparison
+ * -Djmh.args="jdbc:postgresql://localhost:5432/postgres postgres 123456 50000"
+ *
+ * (url, user, password, rows; user defaults to postgres, password to empty, rows to 20000)
+ */
+public class PostgresSearchComparison {
+
+	private static final String[] WORDS = { "java", "spring", "hiệu", "năng", "lập", "trình", "du", "lịch", "việt",
+			"nam", "đà", "nẵng", "database", "index", "query", "cache", "blog", "thiết", "kế", "giao", "diện",
+			"performance", "postgres", "search", "api", "server", "client", "học", "máy", "dữ", "liệu" };
+	private static final String[] QUERIES = { "java", "viet nam", "hieu nang", "postgres index", "perf" };
+	private static final int RUNS = 50;
+
+	public static void main(String[] args) throws SQLException {
+		if (args.length == 0) {
+			System.err.println("usage: PostgresSearchComparison <jdbc-url> [user] [password] [rows]");
+			System.exit(2);
+		}
+		String user = args.length > 1 ? args[1] : "postgres";
+		String password = args.length > 2 ? args[2] : "";
+		int rows = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+		try (Connection c = DriverManager.getConnection(args[0], user, password)) {
+			seed(c, rows);
+
+			System.out.printf("%-16s %12s %12s %12s %12s%n", "query", "like p50 ms", "like p95 ms", "ts p50 ms",
+					"ts p95 ms");
+			for (String q : QUERIES) {
+				String term = TextAnalyzer.analyze(q).get(0);
+				long[] like = time(c, "SELECT post_id FROM bench_posts WHERE status = 1"
+						+ " AND (unaccent(title) ILIKE ? OR unaccent(content) ILIKE ?)"
+						+ " ORDER BY post_id DESC LIMIT 20", "%" + term + "%", "%" + term + "%");
+				long[] ts = time(c, "SELECT post_id, ts_rank_cd(search_vector, q) AS rank"
+						+ " FROM bench_posts, to_tsquery('blog_search', ?) q"
+						+ " WHERE status = 1 AND search_vector @@ q ORDER BY rank DESC, post_id DESC LIMIT 20",
+						tsQuery(q), null);
+				System.out.printf("%-16s %12.2f %12.2f %12.2f %12.2f%n", q, ms(like, 50), ms(like, 95), ms(ts, 50),
+						ms(ts, 95));
+			}
+		}
+	}
+
+	private static void seed(Connection c, int rows) throws SQLException {
+		try (Statement st = c.createStatement()) {
+			st.execute("CREATE TEMP TABLE bench_posts (post_id bigint PRIMARY KEY, title varchar(255) NOT NULL,"
+					+ " content text NOT NULL, status smallint NOT NULL,"
+					+ " search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('blog_search', title), 'A')"
+					+ " || setweight(to_tsvector('blog_search', content), 'B')) STORED)");
+		}
+		Random random = new Random(42);
+		c.setAutoCommit(false);
+		try (PreparedStatement ps = c.prepareStatement("INSERT INTO bench_posts VALUES (?, ?, ?, ?)")) {
+			for (int i = 1; i <= rows; i++) {
+				ps.setLong(1, i);
+				ps.setString(2, sentence(random, 6));
+				ps.setString(3, sentence(random, 300));
+				ps.setShort(4, (short) (i % 10 == 0 ? 0 : 1));
+				ps.addBatch();
+				if (i % 1000 == 0) {
+					ps.executeBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+		c.commit();
+		c.setAutoCommit(true);
+		try (Statement st = c.createStatement()) {
+			st.execute("CREATE INDEX ON bench_posts USING gin (search_vector)");
+			st.execute("ANALYZE bench_posts");
+		}
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(50) == 0 ? ". " : " ");
+		}
+		return sb.toString().trim();
+	}
+
+	private static String tsQuery(String q) {
+		// same shape PostgresSearchService produces: OR of folded terms, prefix on the last one
+		var terms = TextAnalyzer.analyze(q);
+		String last = terms.remove(terms.size() - 1);
+		terms.add(last + ":*");
+		return String.join(" | ", terms);
+	}
+
+	private static long[] time(Connection c, String sql, String p1, String p2) throws SQLException {
+		long[] nanos = new long[RUNS];
+		try (PreparedStatement ps = c.prepareStatement(sql)) {
+			ps.setString(1, p1);
+			if (p2 != null) {
+				ps.setString(2, p2);
+			}
+			for (int i = -5; i < RUNS; i++) { // 5 warm-up runs
+				long start = System.nanoTime();
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						rs.getLong(1);
+					}
+				}
+				if (i >= 0) {
+					nanos[i] = System.nanoTime() - start;
+				}
+			}
+		}
+		Arrays.sort(nanos);
+		return nanos;
+	}
+
+	private static double ms(long[] sorted, int percentile) {
+		int idx = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+		return sorted[idx] / 1_000_000.0;
+	}
+}
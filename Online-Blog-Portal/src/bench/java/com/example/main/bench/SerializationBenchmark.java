@@ -0,0 +1,84 @@
+package com.example.main.bench;
+
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.PostDetail;
+import com.example.main.dto.PostSummary;
+import com.example.main.entity.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost of the post endpoints: the full entity (what the list endpoint used to return per
+ * row) against the summary projection it returns now, and the entity against the cached detail
+ * snapshot for a single post.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+	private static final int PAGE_SIZE = 20;
+
+	private ObjectMapper mapper;
+	private Post post;
+	private PostDetail detail;
+	private List<Post> posts;
+	private CursorPage<PostSummary> summaries;
+
+	@Setup
+	public void setup() {
+		mapper = BenchData.objectMapper();
+		Random random = new Random(42);
+		post = BenchData.post(1, random, 1200, 3);
+		detail = PostDetail.from(post, BenchData.variants(post));
+
+		posts = new ArrayList<>();
+		List<PostSummary> items = new ArrayList<>();
+		for (long id = 1; id <= PAGE_SIZE; id++) {
+			Post p = BenchData.post(id, random, 1200, 3);
+			posts.add(p);
+			items.add(new PostSummary(p.getPostId(), p.getAuthorId(), p.getTitle(), p.getCategory(),
+					p.getThumbnailUrl(), p.getStatus(), p.getFeatured(), p.getCreatedAt(), p.getPublishedAt(),
+					p.getExcerpt(), 12));
+		}
+		summaries = new CursorPage<>(items, "next");
+	}
+
+	@Benchmark
+	public byte[] postEntity() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(post);
+	}
+
+	@Benchmark
+	public byte[] postDetail() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(detail);
+	}
+
+	@Benchmark
+	public byte[] pageOfEntities() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(posts);
+	}
+
+	@Benchmark
+	public byte[] pageOfSummaries() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(summaries);
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.main.service.impl;
+
+import com.example.main.bench.BenchData;
+import com.example.main.dto.CommentNode;
+import com.example.main.dto.CommentResponse;
+import com.example.main.dto.CommentTreeResponse;
+import com.example.main.entity.Comment;
+import com.example.main.entity.Post;
+import com.example.main.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The comment read path after the query: mapping loaded entities to {@link CommentResponse}
+ * (what the constructor projection in CommentRepository avoids), assembling the fetched threads
+ * with {@link CommentTreeBuilder} at the service defaults, and writing them as JSON.
+ *
+ * Threads are deep on purpose: each comment replies to one of the last few with high probability.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommentBenchmark {
+
+	private static final long POST_ID = 1L;
+
+	@Param({ "100", "2000" })
+	public int comments;
+
+	private ObjectMapper mapper;
+	private List<Comment> entities;
+	private List<CommentResponse> rows;
+	// as CommentRepository.findThreadRows reports them
+	private int[] replyCounts;
+	private CommentTreeResponse tree;
+
+	@Setup
+	public void setup() {
+		mapper = BenchData.objectMapper();
+		Random random = new Random(42);
+		Post post = BenchData.post(POST_ID, random, 10, 0);
+
+		List<User> users = new ArrayList<>();
+		for (long id = 1; id <= 50; id++) {
+			User u = new User();
+			u.setUserId(id);
+			u.setUsername("user" + id);
+			u.setDisplayName("User " + id);
+			users.add(u);
+		}
+
+		entities = new ArrayList<>(comments);
+		OffsetDateTime at = OffsetDateTime.parse("2025-01-01T08:00:00Z");
+		for (int i = 0; i < comments; i++) {
+			Comment c = new Comment();
+			c.setCommentId((long) i + 1);
+			c.setPost(post);
+			c.setAuthor(users.get(random.nextInt(users.size())));
+			c.setContent(BenchData.text(random, 5 + random.nextInt(40)));
+			c.setCreatedAt(at.plusSeconds(i));
+			if (i > 0 && random.nextInt(10) < 8) {
+				c.setParent(entities.get(Math.max(0, i - 1 - random.nextInt(5))));
+			}
+			entities.add(c);
+		}
+		rows = mapEntities();
+		replyCounts = new int[comments];
+		for (Comment c : entities) {
+			if (c.getParent() != null) {
+				replyCounts[(int) (c.getParent().getCommentId() - 1)]++;
+			}
+		}
+		tree = new CommentTreeResponse(POST_ID, buildTree(), null);
+	}
+
+	@Benchmark
+	public List<CommentResponse> mapEntities() {
+		List<CommentResponse> out = new ArrayList<>(entities.size());
+		for (Comment c : entities) {
+			User author = c.getAuthor();
+			out.add(new CommentResponse(c.getCommentId(), c.getPost().getPostId(), author.getUserId(),
+					c.getParent() != null ? c.getParent().getCommentId() : null, c.getContent(), c.getCreatedAt(),
+					author.getUsername(), author.getDisplayName()));
+		}
+		return out;
+	}
+
+	@Benchmark
+	public List<CommentNode> buildTree() {
+		return CommentTreeBuilder.build(rows, replyCounts, 8, 20);
+	}
+
+	@Benchmark
+	public byte[] serializeTree() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(tree);
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.main.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** {@code --key=value} command-line options with typed defaults. */
+final class Args {
+
+	private final Map<String, String> values = new HashMap<>();
+
+	Args(String[] args) {
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Expected --key=value, got " + arg);
+			}
+			int eq = arg.indexOf('=');
+			values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+		}
+	}
+
+	String get(String key, String def) {
+		return values.getOrDefault(key, def);
+	}
+
+	int getInt(String key, int def) {
+		return values.containsKey(key) ? Integer.parseInt(values.get(key)) : def;
+	}
+
+	double getDouble(String key, double def) {
+		return values.containsKey(key) ? Double.parseDouble(values.get(key)) : def;
+	}
+
+	boolean has(String key) {
+		return values.containsKey(key);
+	}
+
+	/** Parses {@code "list=40,detail=40"} into an ordered name -> weight map. */
+	static Map<String, Integer> weights(String spec) {
+		Map<String, Integer> res = new LinkedHashMap<>();
+		for (String part : spec.split(",")) {
+			String[] kv = part.trim().split("=");
+			if (kv.length != 2) {
+				throw new IllegalArgumentException("Invalid mix entry: " + part);
+			}
+			res.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+		}
+		return res;
+	}
+}
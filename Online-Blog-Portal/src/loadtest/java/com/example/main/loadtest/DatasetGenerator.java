@@ -0,0 +1,276 @@
+package com.example.main.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds users, posts, post images and threaded comments with batched JDBC inserts. Works on the
+ * schema Hibernate creates (H2 in PostgreSQL mode) and on the PostgreSQL schema in database.txt;
+ * ids are always database-generated and read back through generated keys.
+ *
+ * Comments are inserted one depth level at a time so every reply's parent id is already known.
+ * Each level takes half of what is left, which gives a wide top level and long narrow chains
+ * down to {@code maxDepth}.
+ *
+ * Every user is {@code lt-user-<n>@example.com} with password {@link #PASSWORD}; a single BCrypt
+ * hash is shared so seeding is not dominated by hashing.
+ *
+ * Standalone: {@code DatasetGenerator --jdbc-url=... --jdbc-user=... --jdbc-password=... --users=200
+ * --posts=5000 --images=2 --comments=40 --depth=8 --seed=42}
+ */
+public class DatasetGenerator {
+
+	public static final String PASSWORD = "loadtest-password";
+
+	private static final String[] WORDS = { "java", "spring", "blog", "database", "index", "query", "cache",
+			"performance", "server", "client", "thread", "memory", "latency", "request", "response", "design",
+			"lập", "trình", "hiệu", "năng", "việt", "nam", "du", "lịch" };
+	private static final String[] CATEGORIES = { "tech", "travel", "food", "life", "news", "review" };
+	private static final int POST_CHUNK = 200;
+
+	private final int users;
+	private final int posts;
+	private final int imagesPerPost;
+	private final int commentsPerPost;
+	private final int maxDepth;
+	private final int batchSize;
+	private final Random random;
+
+	public DatasetGenerator(int users, int posts, int imagesPerPost, int commentsPerPost, int maxDepth,
+			int batchSize, long seed) {
+		this.users = users;
+		this.posts = posts;
+		this.imagesPerPost = imagesPerPost;
+		this.commentsPerPost = commentsPerPost;
+		this.maxDepth = Math.max(1, maxDepth);
+		this.batchSize = batchSize;
+		this.random = new Random(seed);
+	}
+
+	static DatasetGenerator fromArgs(Args args) {
+		return new DatasetGenerator(args.getInt("users", 200), args.getInt("posts", 2000), args.getInt("images", 2),
+				args.getInt("comments", 40), args.getInt("depth", 8), args.getInt("batch", 500),
+				args.getInt("seed", 42));
+	}
+
+	public static void main(String[] argv) throws SQLException {
+		Args args = new Args(argv);
+		try (Connection c = DriverManager.getConnection(args.get("jdbc-url", "jdbc:postgresql://localhost:5432/postgres"),
+				args.get("jdbc-user", "postgres"), args.get("jdbc-password", ""))) {
+			fromArgs(args).generate(c);
+		}
+	}
+
+	/** Seeds everything and returns the generated post ids. */
+	public List<Long> generate(Connection c) throws SQLException {
+		long started = System.nanoTime();
+		boolean autoCommit = c.getAutoCommit();
+		c.setAutoCommit(false);
+		try {
+			List<Long> userIds = insertUsers(c);
+			List<Long> postIds = new ArrayList<>(posts);
+			long commentCount = 0;
+			for (int from = 0; from < posts; from += POST_CHUNK) {
+				List<Long> chunk = insertPosts(c, userIds, Math.min(POST_CHUNK, posts - from));
+				insertImages(c, chunk);
+				commentCount += insertComments(c, chunk, userIds);
+				updateCommentCounts(c, chunk);
+				c.commit();
+				postIds.addAll(chunk);
+			}
+			System.out.printf("Seeded %d users, %d posts, %d images, %d comments in %d ms%n", userIds.size(),
+					postIds.size(), (long) postIds.size() * imagesPerPost, commentCount,
+					(System.nanoTime() - started) / 1_000_000);
+			return postIds;
+		} catch (SQLException e) {
+			c.rollback();
+			throw e;
+		} finally {
+			c.setAutoCommit(autoCommit);
+		}
+	}
+
+	private List<Long> insertUsers(Connection c) throws SQLException {
+		String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+		String sql = "INSERT INTO users (username, email, password_hash, display_name, role, created_at, token_version)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, 0)";
+		List<Long> ids = new ArrayList<>(users);
+		try (PreparedStatement ps = c.prepareStatement(sql, new String[] { "user_id" })) {
+			for (int n = 1; n <= users; n++) {
+				ps.setString(1, "lt-user-" + n);
+				ps.setString(2, email(n));
+				ps.setString(3, hash);
+				ps.setString(4, "Load Test " + n);
+				ps.setShort(5, (short) 0);
+				ps.setObject(6, OffsetDateTime.now(ZoneOffset.UTC));
+				ps.addBatch();
+				if (n % batchSize == 0 || n == users) {
+					execute(ps, ids);
+				}
+			}
+		}
+		c.commit();
+		return ids;
+	}
+
+	private List<Long> insertPosts(Connection c, List<Long> userIds, int count) throws SQLException {
+		String sql = "INSERT INTO posts (author_id, title, content, status, category, created_at, published_at,"
+				+ " featured, thumbnail_url, excerpt, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+		OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+		List<Long> ids = new ArrayList<>(count);
+		try (PreparedStatement ps = c.prepareStatement(sql, new String[] { "post_id" })) {
+			for (int i = 1; i <= count; i++) {
+				String content = "<p>" + text(200 + random.nextInt(1200)) + "</p>";
+				OffsetDateTime at = now.minusMinutes(random.nextInt(365 * 24 * 60));
+				boolean published = random.nextInt(10) != 0;
+				ps.setLong(1, userIds.get(random.nextInt(userIds.size())));
+				ps.setString(2, text(4 + random.nextInt(8)));
+				ps.setString(3, content);
+				ps.setShort(4, (short) (published ? 1 : 0));
+				ps.setString(5, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+				ps.setObject(6, at);
+				ps.setObject(7, published ? at : null);
+				ps.setBoolean(8, random.nextInt(20) == 0);
+				ps.setString(9, null);
+				ps.setString(10, content.substring(3, Math.min(content.length(), 203)));
+				ps.setObject(11, at);
+				ps.addBatch();
+				if (i % batchSize == 0 || i == count) {
+					execute(ps, ids);
+				}
+			}
+		}
+		return ids;
+	}
+
+	private void insertImages(Connection c, List<Long> postIds) throws SQLException {
+		if (imagesPerPost <= 0) {
+			return;
+		}
+		int pending = 0;
+		try (PreparedStatement ps = c.prepareStatement("INSERT INTO post_images (post_id, image_url) VALUES (?, ?)");
+				PreparedStatement thumb = c.prepareStatement("UPDATE posts SET thumbnail_url = ? WHERE post_id = ?")) {
+			for (Long postId : postIds) {
+				for (int i = 0; i < imagesPerPost; i++) {
+					ps.setLong(1, postId);
+					ps.setString(2, imageUrl(postId, i));
+					ps.addBatch();
+				}
+				thumb.setString(1, imageUrl(postId, 0));
+				thumb.setLong(2, postId);
+				thumb.addBatch();
+				pending += imagesPerPost;
+				if (pending >= batchSize) {
+					ps.executeBatch();
+					thumb.executeBatch();
+					pending = 0;
+				}
+			}
+			ps.executeBatch();
+			thumb.executeBatch();
+		}
+	}
+
+	private long insertComments(Connection c, List<Long> postIds, List<Long> userIds) throws SQLException {
+		if (commentsPerPost <= 0) {
+			return 0;
+		}
+		String sql = "INSERT INTO comments (post_id, user_id, parent_id, content, created_at) VALUES (?, ?, ?, ?, ?)";
+		OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).minusDays(30);
+
+		// parents[p] = ids inserted for postIds[p] at the previous level
+		List<List<Long>> parents = new ArrayList<>();
+		for (int p = 0; p < postIds.size(); p++) {
+			parents.add(List.of());
+		}
+		long total = 0;
+		int remaining = commentsPerPost;
+		try (PreparedStatement ps = c.prepareStatement(sql, new String[] { "comment_id" })) {
+			for (int depth = 0; depth < maxDepth && remaining > 0; depth++) {
+				int perPost = depth == maxDepth - 1 ? remaining : Math.max(1, (remaining + 1) / 2);
+				remaining -= perPost;
+
+				List<Long> ids = new ArrayList<>();
+				List<Integer> owner = new ArrayList<>(); // postIds index of each queued row
+				for (int p = 0; p < postIds.size(); p++) {
+					List<Long> parentIds = parents.get(p);
+					if (depth > 0 && parentIds.isEmpty()) {
+						continue;
+					}
+					for (int i = 0; i < perPost; i++) {
+						ps.setLong(1, postIds.get(p));
+						ps.setLong(2, userIds.get(random.nextInt(userIds.size())));
+						if (depth == 0) {
+							ps.setObject(3, null);
+						} else {
+							ps.setLong(3, parentIds.get(random.nextInt(parentIds.size())));
+						}
+						ps.setString(4, text(5 + random.nextInt(60)));
+						ps.setObject(5, start.plusSeconds(depth * 3600L + i * 7L));
+						ps.addBatch();
+						owner.add(p);
+						if (owner.size() - ids.size() >= batchSize) {
+							execute(ps, ids);
+						}
+					}
+				}
+				execute(ps, ids);
+				total += ids.size();
+
+				List<List<Long>> next = new ArrayList<>();
+				for (int p = 0; p < postIds.size(); p++) {
+					next.add(new ArrayList<>());
+				}
+				for (int i = 0; i < ids.size(); i++) {
+					next.get(owner.get(i)).add(ids.get(i));
+				}
+				parents = next;
+			}
+		}
+		return total;
+	}
+
+	private void updateCommentCounts(Connection c, List<Long> postIds) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement("UPDATE posts SET comment_count ="
+				+ " (SELECT COUNT(*) FROM comments cm WHERE cm.post_id = posts.post_id) WHERE post_id BETWEEN ? AND ?")) {
+			ps.setLong(1, postIds.get(0));
+			ps.setLong(2, postIds.get(postIds.size() - 1));
+			ps.executeUpdate();
+		}
+	}
+
+	private static void execute(PreparedStatement ps, List<Long> ids) throws SQLException {
+		ps.executeBatch();
+		try (ResultSet keys = ps.getGeneratedKeys()) {
+			while (keys.next()) {
+				ids.add(keys.getLong(1));
+			}
+		}
+	}
+
+	private String text(int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(15) == 0 ? ". " : " ");
+		}
+		return sb.toString().trim();
+	}
+
+	static String email(int n) {
+		return "lt-user-" + n + "@example.com";
+	}
+
+	private static String imageUrl(Long postId, int i) {
+		return "/uploads/loadtest/" + postId + "-" + i + ".jpg";
+	}
+}
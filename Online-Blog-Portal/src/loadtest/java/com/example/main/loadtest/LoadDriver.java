@@ -0,0 +1,372 @@
+package com.example.main.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load driver for the read paths, login and uploads. Worker threads pick an operation from a
+ * weighted mix and record latency per operation into HdrHistograms (microseconds).
+ *
+ * Closed loop by default: each worker sends its next request as soon as the previous one returns.
+ * With {@code --rate} the workers follow a fixed schedule instead and latency is measured from
+ * the intended send time, so a stalled server shows up as queueing delay rather than as fewer,
+ * faster samples (coordinated omission).
+ *
+ * Post ids are sampled with a power-law skew ({@code --skew}, 1 = uniform) so a small set of hot
+ * posts gets most of the detail and comment reads, as on a real blog.
+ *
+ * {@code upload} creates a draft post with one image, sending the {@code --upload-kb} body over
+ * {@code --upload-seconds} like a client on a slow link; each worker logs in once for its token.
+ *
+ * Standalone against a running server: {@code LoadDriver --base-url=http://localhost:8080
+ * --users=200 --threads=16 --duration=60 --warmup=10 --mix=list=30,detail=45,comments=20,login=5}
+ */
+public class LoadDriver {
+
+	private static final Pattern POST_ID = Pattern.compile("\"postId\":(\\d+)");
+	private static final Pattern NEXT_CURSOR = Pattern.compile("\"nextCursor\":\"([^\"]+)\"");
+	private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+	private static final Pattern USER_ID = Pattern.compile("\"userId\":(\\d+)");
+	private static final String BOUNDARY = "loadtest-boundary";
+	private static final int UPLOAD_CHUNK = 8192;
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private final String baseUrl;
+	private final int threads;
+	private final int durationSeconds;
+	private final int warmupSeconds;
+	private final double rate;
+	private final double skew;
+	private final int users;
+	private final Map<String, Integer> mix;
+	private final int uploadBytes;
+	private final double uploadSeconds;
+	private final HttpClient client;
+
+	private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+	private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+	private final ThreadLocal<String[]> session = new ThreadLocal<>(); // token, user id
+	private List<Long> postIds;
+	private byte[] uploadImage;
+	private volatile boolean running;
+
+	public LoadDriver(String baseUrl, int threads, int durationSeconds, int warmupSeconds, double rate, double skew,
+			int users, Map<String, Integer> mix, int uploadBytes, double uploadSeconds) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.threads = threads;
+		this.durationSeconds = durationSeconds;
+		this.warmupSeconds = warmupSeconds;
+		this.rate = rate;
+		this.skew = skew;
+		this.users = users;
+		this.mix = mix;
+		this.uploadBytes = uploadBytes;
+		this.uploadSeconds = uploadSeconds;
+		this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5)).build();
+		for (String op : mix.keySet()) {
+			if (!List.of("list", "detail", "comments", "login", "upload").contains(op)) {
+				throw new IllegalArgumentException("Unknown operation in mix: " + op);
+			}
+			recorders.put(op, new Recorder(MAX_LATENCY_MICROS, 3));
+			errors.put(op, new LongAdder());
+		}
+	}
+
+	static LoadDriver fromArgs(Args args, String baseUrl) {
+		return new LoadDriver(baseUrl, args.getInt("threads", 16), args.getInt("duration", 60),
+				args.getInt("warmup", 10), args.getDouble("rate", 0), args.getDouble("skew", 3),
+				args.getInt("users", 200), Args.weights(args.get("mix", "list=30,detail=45,comments=20,login=5")),
+				args.getInt("upload-kb", 256) * 1024, args.getDouble("upload-seconds", 5));
+	}
+
+	public static void main(String[] argv) throws Exception {
+		Args args = new Args(argv);
+		LoadDriver driver = fromArgs(args, args.get("base-url", "http://localhost:8080"));
+		driver.run(driver.discoverPostIds(args.getInt("discover", 2000)), args.get("hgrm-dir", null));
+	}
+
+	/** Pages through {@code GET /api/posts} to collect up to {@code max} published post ids. */
+	public List<Long> discoverPostIds(int max) throws IOException, InterruptedException {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		while (ids.size() < max) {
+			String url = "/api/posts?limit=100" + (cursor == null ? "" : "&cursor=" + cursor);
+			HttpResponse<String> res = client.send(get(url), HttpResponse.BodyHandlers.ofString());
+			Matcher m = POST_ID.matcher(res.body());
+			while (m.find() && ids.size() < max) {
+				ids.add(Long.parseLong(m.group(1)));
+			}
+			Matcher next = NEXT_CURSOR.matcher(res.body());
+			if (!next.find()) {
+				break;
+			}
+			cursor = next.group(1);
+		}
+		return ids;
+	}
+
+	/**
+	 * Runs warm-up then the measured phase and prints the report. Writes one percentile
+	 * distribution file per operation to {@code hgrmDir} when it is not null.
+	 */
+	public void run(List<Long> postIds, String hgrmDir) throws InterruptedException, IOException {
+		if (postIds.isEmpty()) {
+			throw new IllegalStateException("No published posts to read; seed the database first");
+		}
+		this.postIds = postIds;
+		if (mix.containsKey("upload")) {
+			uploadImage = image(uploadBytes);
+		}
+		System.out.printf("Driving %s: %d threads, %s, mix %s, %d posts, skew %.1f%n", baseUrl, threads,
+				rate > 0 ? String.format("%.0f req/s", rate) : "closed loop", mix, postIds.size(), skew);
+
+		running = true;
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Thread t = new Thread(this::work, "load-" + i);
+			t.setDaemon(true);
+			t.start();
+			workers.add(t);
+		}
+
+		Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+		for (String op : mix.keySet()) {
+			recorders.get(op).reset();
+			errors.get(op).reset();
+		}
+		long start = System.nanoTime();
+		Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+		Map<String, Histogram> results = new LinkedHashMap<>();
+		for (String op : mix.keySet()) {
+			results.put(op, recorders.get(op).getIntervalHistogram());
+		}
+		double elapsed = (System.nanoTime() - start) / 1e9;
+		running = false;
+		for (Thread t : workers) {
+			t.join(TimeUnit.SECONDS.toMillis(10));
+		}
+
+		report(results, elapsed);
+		if (hgrmDir != null) {
+			Path dir = Files.createDirectories(Path.of(hgrmDir));
+			for (Map.Entry<String, Histogram> e : results.entrySet()) {
+				try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(e.getKey() + ".hgrm")))) {
+					e.getValue().outputPercentileDistribution(out, 1000.0); // in milliseconds
+				}
+			}
+		}
+	}
+
+	private void work() {
+		int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+		long intervalNanos = rate > 0 ? (long) (1e9 * threads / rate) : 0;
+		long next = System.nanoTime();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		while (running) {
+			String op = pick(random.nextInt(totalWeight));
+			long intended = System.nanoTime();
+			if (intervalNanos > 0) {
+				long wait;
+				while ((wait = next - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				intended = next;
+				next += intervalNanos;
+			}
+			boolean ok;
+			try {
+				ok = execute(op, random);
+			} catch (IOException e) {
+				ok = false;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long micros = Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - intended) / 1000);
+			recorders.get(op).recordValue(micros);
+			if (!ok) {
+				errors.get(op).increment();
+			}
+		}
+	}
+
+	private boolean execute(String op, ThreadLocalRandom random) throws IOException, InterruptedException {
+		HttpRequest request = switch (op) {
+		case "list" -> get("/api/posts?limit=20");
+		case "detail" -> get("/api/posts/" + hotPost(random));
+		case "comments" -> get("/api/comments/post/" + hotPost(random));
+		case "upload" -> upload(random);
+		default -> login(random);
+		};
+		if (request == null) {
+			return false;
+		}
+		HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+		return res.statusCode() / 100 == 2;
+	}
+
+	private HttpRequest login(ThreadLocalRandom random) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/login"))
+				.timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"email\":\""
+						+ DatasetGenerator.email(1 + random.nextInt(users)) + "\",\"password\":\""
+						+ DatasetGenerator.PASSWORD + "\"}"))
+				.build();
+	}
+
+	// null when this worker could not log in
+	private HttpRequest upload(ThreadLocalRandom random) throws IOException, InterruptedException {
+		String[] s = session.get();
+		if (s == null) {
+			String body = client.send(login(random), HttpResponse.BodyHandlers.ofString()).body();
+			Matcher token = TOKEN.matcher(body);
+			Matcher userId = USER_ID.matcher(body);
+			if (!token.find() || !userId.find()) {
+				return null;
+			}
+			s = new String[] { token.group(1), userId.group(1) };
+			session.set(s);
+		}
+
+		String post = "{\"authorId\":" + s[1] + ",\"title\":\"Load test upload\",\"content\":\"Uploaded by the load "
+				+ "driver.\",\"status\":0}";
+		ByteArrayOutputStream body = new ByteArrayOutputStream(uploadImage.length + 512);
+		body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"post\"\r\n"
+				+ "Content-Type: application/json\r\n\r\n" + post + "\r\n--" + BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"files\"; filename=\"upload.png\"\r\n"
+				+ "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.writeBytes(uploadImage);
+		body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		byte[] bytes = body.toByteArray();
+		long nanosPerChunk = (long) (uploadSeconds * 1e9 * UPLOAD_CHUNK / bytes.length);
+
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/api/posts/create"))
+				.timeout(Duration.ofSeconds(30 + (long) uploadSeconds))
+				.header("Authorization", "Bearer " + s[0])
+				.header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+				.POST(HttpRequest.BodyPublishers.fromPublisher(
+						HttpRequest.BodyPublishers.ofInputStream(() -> new TrickleInputStream(bytes, nanosPerChunk)),
+						bytes.length))
+				.build();
+	}
+
+	/** A small real PNG padded with trailing bytes (ignored by decoders) to {@code size}. */
+	private static byte[] image(int size) throws IOException {
+		BufferedImage img = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 64; y++) {
+			for (int x = 0; x < 64; x++) {
+				img.setRGB(x, y, (x * 4) << 16 | (y * 4) << 8 | 0x80);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(img, "png", out);
+		byte[] png = out.toByteArray();
+		return png.length >= size ? png : Arrays.copyOf(png, size);
+	}
+
+	/** Hands out at most one chunk per {@code nanosPerChunk}, like a slow client link. */
+	private static final class TrickleInputStream extends InputStream {
+
+		private final byte[] data;
+		private final long nanosPerChunk;
+		private int pos;
+		private long next = System.nanoTime();
+
+		TrickleInputStream(byte[] data, long nanosPerChunk) {
+			this.data = data;
+			this.nanosPerChunk = nanosPerChunk;
+		}
+
+		@Override
+		public int read() {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (pos == data.length) {
+				return -1;
+			}
+			long wait;
+			while ((wait = next - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			next += nanosPerChunk;
+			int n = Math.min(Math.min(len, UPLOAD_CHUNK), data.length - pos);
+			System.arraycopy(data, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+
+	private String pick(int r) {
+		for (Map.Entry<String, Integer> e : mix.entrySet()) {
+			r -= e.getValue();
+			if (r < 0) {
+				return e.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private long hotPost(ThreadLocalRandom random) {
+		int i = (int) (Math.pow(random.nextDouble(), skew) * postIds.size());
+		return postIds.get(Math.min(i, postIds.size() - 1));
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+	}
+
+	private void report(Map<String, Histogram> results, double seconds) {
+		System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n", "op", "requests", "errors", "req/s",
+				"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+		long allErrors = 0;
+		for (Map.Entry<String, Histogram> e : results.entrySet()) {
+			long failed = errors.get(e.getKey()).sum();
+			all.add(e.getValue());
+			allErrors += failed;
+			row(e.getKey(), e.getValue(), failed, seconds);
+		}
+		row("total", all, allErrors, seconds);
+	}
+
+	private static void row(String name, Histogram h, long failed, double seconds) {
+		System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, h.getTotalCount(), failed,
+				h.getTotalCount() / seconds, ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0);
+	}
+
+	private static double ms(Histogram h, double percentile) {
+		return h.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.main.loadtest;
+
+import com.example.main.OnlineBlogPortalApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-command load test: boots the application in-process on a random port, seeds it with
+ * {@link DatasetGenerator} and drives it with {@link LoadDriver}.
+ *
+ * The database is an in-memory H2 in PostgreSQL mode unless {@code --jdbc-url} points at a local
+ * PostgreSQL (schema is then created or updated by Hibernate). File storage is forced to
+ * {@code local} so the content-addressed sweeper never runs against the working copy's uploads.
+ *
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--posts=5000 --comments=60 --threads=32 --duration=60"
+ *
+ * Slow uploads against fast reads, platform against virtual threads (Java 21):
+ * {@code --mix=detail=70,list=10,upload=20 --threads=64 --upload-seconds=5 --server-threads=32} with and
+ * without {@code --virtual}. With platform threads every trickling upload holds a Tomcat worker, so
+ * reads queue once uploads fill the pool; with virtual threads the pool size no longer applies.
+ * Recorded runs are in src/loadtest/results/virtual-threads.txt. That comparison is not done yet: only the
+ * platform side has run (Java 17), and the virtual-thread rows still need a Java 21 run.
+ */
+public class LoadTestRunner {
+
+	public static void main(String[] argv) throws Exception {
+		Args args = new Args(argv);
+		boolean h2 = !args.has("jdbc-url");
+
+		// passed as command-line arguments so they win over application.properties
+		List<String> props = new ArrayList<>(List.of("--server.port=0", "--storage.mode=local",
+				"--search.index-dir=search-index", "--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN"));
+		if (h2) {
+			props.addAll(List.of("--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+					"--spring.datasource.username=sa", "--spring.datasource.password=",
+					"--spring.jpa.hibernate.ddl-auto=create"));
+		} else {
+			props.addAll(List.of("--spring.datasource.url=" + args.get("jdbc-url", null),
+					"--spring.datasource.username=" + args.get("jdbc-user", "postgres"),
+					"--spring.datasource.password=" + args.get("jdbc-password", "")));
+		}
+		if (args.has("virtual")) {
+			props.add("--spring.threads.virtual.enabled=" + args.get("virtual", "true"));
+		}
+		if (args.has("server-threads")) {
+			props.add("--server.tomcat.threads.max=" + args.getInt("server-threads", 200));
+		}
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(OnlineBlogPortalApplication.class)
+				.run(props.toArray(String[]::new))) {
+			List<Long> postIds;
+			try (Connection c = ctx.getBean(DataSource.class).getConnection()) {
+				postIds = DatasetGenerator.fromArgs(args).generate(c);
+			}
+			String port = ctx.getEnvironment().getProperty("local.server.port");
+			LoadDriver driver = LoadDriver.fromArgs(args, "http://localhost:" + port);
+			// read ids back through the list endpoint so only posts it serves are requested
+			driver.run(driver.discoverPostIds(Math.min(postIds.size(), args.getInt("discover", 2000))),
+					args.get("hgrm-dir", null));
+		}
+	}
+}
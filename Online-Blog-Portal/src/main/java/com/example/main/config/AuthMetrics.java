@@ -0,0 +1,101 @@
+package com.example.main.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters and timers for the JWT authentication path. Recording is a couple of striped
+ * adds, so it is safe to call on every request.
+ */
+@Component
+public class AuthMetrics {
+
+	public enum Outcome {
+		NO_TOKEN, VALID, INVALID, EXPIRED, REVOKED
+	}
+
+	private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+	private final Timer verifyTimer = new Timer();
+	private final Timer resolveTimer = new Timer();
+
+	public AuthMetrics() {
+		for (Outcome outcome : Outcome.values()) {
+			outcomes.put(outcome, new LongAdder());
+		}
+	}
+
+	public void record(Outcome outcome) {
+		outcomes.get(outcome).increment();
+	}
+
+	public void recordVerify(long nanos) {
+		verifyTimer.record(nanos);
+	}
+
+	public void recordResolve(long nanos) {
+		resolveTimer.record(nanos);
+	}
+
+	public long count(Outcome outcome) {
+		return outcomes.get(outcome).sum();
+	}
+
+	public Timer getVerifyTimer() {
+		return verifyTimer;
+	}
+
+	public Timer getResolveTimer() {
+		return resolveTimer;
+	}
+
+	public Map<String, Object> snapshot() {
+		Map<String, Object> counts = new LinkedHashMap<>();
+		for (Outcome outcome : Outcome.values()) {
+			counts.put(outcome.name().toLowerCase(), count(outcome));
+		}
+
+		Map<String, Object> res = new LinkedHashMap<>();
+		res.put("outcomes", counts);
+		res.put("tokenVerification", verifyTimer.snapshot());
+		res.put("userResolution", resolveTimer.snapshot());
+		return res;
+	}
+
+	public static final class Timer {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		Map<String, Object> snapshot() {
+			long n = getCount();
+			Map<String, Object> res = new LinkedHashMap<>();
+			res.put("count", n);
+			res.put("meanMicros", n == 0 ? 0.0 : getTotalNanos() / 1000.0 / n);
+			res.put("maxMicros", getMaxNanos() / 1000.0);
+			return res;
+		}
+	}
+}
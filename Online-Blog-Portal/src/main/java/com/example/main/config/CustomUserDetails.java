@@ -16,12 +16,21 @@ public class CustomUserDetails implements UserDetails {
 	private final List<GrantedAuthority> authorities;
 
 	public CustomUserDetails(User user) {
-		this.id = user.getUserId();
-		this.email = user.getEmail();
-		this.passwordHash = user.getPasswordHash();
-		this.role = user.getRole();
+		this(user.getUserId(), user.getEmail(), user.getPasswordHash(), user.getRole());
+	}
+
+	// Built from an already verified token, no password available
+	public CustomUserDetails(VerifiedClaims claims) {
+		this(claims.getUserId(), claims.getEmail(), null, claims.getRole());
+	}
+
+	private CustomUserDetails(Long id, String email, String passwordHash, Short role) {
+		this.id = id;
+		this.email = email;
+		this.passwordHash = passwordHash;
+		this.role = role;
 
-		String roleName = (role == 1) ? "ROLE_ADMIN" : "ROLE_USER";
+		String roleName = (role != null && role == 1) ? "ROLE_ADMIN" : "ROLE_USER";
 		this.authorities = List.of(new SimpleGrantedAuthority(roleName));
 	}
 
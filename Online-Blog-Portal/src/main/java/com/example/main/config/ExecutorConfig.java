@@ -0,0 +1,32 @@
+package com.example.main.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+	/**
+	 * Background pool for image resizing. Bounded on both threads and queue; when it is saturated the
+	 * uploading request thread does the work itself, which throttles uploads instead of piling up heap.
+	 * Stays on platform threads in virtual-thread mode: resizing is CPU-bound and the pool size is its
+	 * concurrency limit.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService imageProcessingExecutor(@Value("${images.processing.threads:2}") int threads,
+			@Value("${images.processing.queue:200}") int queue) {
+		AtomicInteger seq = new AtomicInteger();
+		return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), r -> {
+			Thread t = new Thread(r, "image-proc-" + seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+}
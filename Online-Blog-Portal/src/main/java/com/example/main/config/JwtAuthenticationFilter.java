@@ -1,84 +1,128 @@
 package com.example.main.config;
 
+import com.example.main.config.AuthMetrics.Outcome;
 import com.example.main.service.impl.CustomUserDetailsService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+	private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
 	@Autowired
 	private JwtUtil jwtUtil;
 
 	@Autowired
 	private CustomUserDetailsService userDetailsService;
 
+	@Autowired
+	private UserAuthStateCache authStateCache;
+
+	@Autowired
+	private AuthMetrics metrics;
+
+	// true: trust verified claims and only check the cached token version; false: load the user per request
+	@Value("${auth.stateless:true}")
+	private boolean statelessAuth;
+
+	// debug-log roughly 1 in N requests (0 disables); the token itself is never logged
+	@Value("${auth.debug-sample-rate:100}")
+	private int debugSampleRate;
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 
-		final String authHeader = request.getHeader("Authorization");
+		Outcome outcome = authenticate(request);
+		metrics.record(outcome);
+
+		if (debugSampleRate > 0 && log.isDebugEnabled()
+				&& ThreadLocalRandom.current().nextInt(debugSampleRate) == 0) {
+			log.debug("JWT {} {} -> {}", request.getMethod(), request.getRequestURI(), outcome);
+		}
 
-		// LOG 1 — print raw header
-		System.out.println("=== JWT FILTER START ===");
-		System.out.println("REQUEST: " + request.getMethod() + " " + request.getRequestURI());
-		System.out.println("Authorization Header = " + authHeader);
+		filterChain.doFilter(request, response);
+	}
+
+	private Outcome authenticate(HttpServletRequest request) {
+		final String authHeader = request.getHeader("Authorization");
 
 		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-			System.out.println("NO VALID TOKEN → SKIP");
-			System.out.println("=== JWT FILTER END ===");
-			filterChain.doFilter(request, response);
-			return;
+			return Outcome.NO_TOKEN;
 		}
 
 		String jwt = authHeader.substring(7);
 
-		// LOG 2 — show token
-		System.out.println("JWT Token = " + jwt);
-
-		String email = jwtUtil.extractEmail(jwt);
-
-		// LOG 3 — decoded email
-		System.out.println("Decoded Email = " + email);
+		VerifiedClaims claims;
+		long start = System.nanoTime();
+		try {
+			// single parse: signature + expiry checked once, repeat tokens come from the cache
+			claims = jwtUtil.verify(jwt);
+		} catch (ExpiredJwtException e) {
+			return Outcome.EXPIRED;
+		} catch (JwtException | IllegalArgumentException e) {
+			return Outcome.INVALID;
+		} finally {
+			metrics.recordVerify(System.nanoTime() - start);
+		}
 
-		if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+		if (claims.getEmail() == null) {
+			return Outcome.INVALID;
+		}
 
-			UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+		if (SecurityContextHolder.getContext().getAuthentication() != null) {
+			return Outcome.VALID;
+		}
 
-			if (jwtUtil.isTokenValid(jwt, userDetails.getUsername())) {
+		start = System.nanoTime();
+		UserDetails userDetails = resolveUser(claims);
+		metrics.recordResolve(System.nanoTime() - start);
 
-				// LOG 4 — token validation passed
-				System.out.println("JWT VALID. Setting authentication…");
+		if (userDetails == null) {
+			return Outcome.REVOKED;
+		}
 
-				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-						null, userDetails.getAuthorities());
+		UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
 
-				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-				SecurityContextHolder.getContext().setAuthentication(authToken);
+		SecurityContextHolder.getContext().setAuthentication(authToken);
+		return Outcome.VALID;
+	}
 
-			} else {
-				System.out.println("JWT INVALID FOR USER: " + userDetails.getUsername());
+	private UserDetails resolveUser(VerifiedClaims claims) {
+		if (statelessAuth) {
+			if (claims.getUserId() == null || !authStateCache.isCurrent(claims.getUserId(), claims.getTokenVersion())) {
+				return null;
 			}
-		} else {
-			System.out.println("EMAIL NULL OR ALREADY AUTHENTICATED.");
+			return new CustomUserDetails(claims);
 		}
 
-		System.out.println("AUTH PRINCIPAL AFTER FILTER: " + SecurityContextHolder.getContext().getAuthentication());
-
-		System.out.println("=== JWT FILTER END ===");
-
-		filterChain.doFilter(request, response);
+		try {
+			UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getEmail());
+			return claims.getEmail().equals(userDetails.getUsername()) ? userDetails : null;
+		} catch (UsernameNotFoundException e) {
+			return null;
+		}
 	}
 }
@@ -5,7 +5,11 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -13,31 +17,83 @@ public class JwtUtil {
 
     private static final String SECRET = "CHANGE_THIS_SECRET_TO_A_RANDOM_64_BYTES_KEY_1234567890";
     private static final long EXPIRATION_MS = 1000 * 60 * 60 * 24;
+    private static final int CLAIMS_CACHE_MAX_ENTRIES = 10_000;
+
+    private final Clock clock;
+    private final int cacheMaxEntries;
+
+    // key and parser are immutable and thread-safe, build them once
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final JwtParser parser;
+
+    // token -> claims that already passed signature verification. Keyed on the whole token: the
+    // signature segment alone would let a valid signature be replayed with a different payload.
+    // Tokens are a few hundred bytes, so the entry bound keeps this to a few MB.
+    private final ConcurrentHashMap<String, VerifiedClaims> claimsCache = new ConcurrentHashMap<>();
+
+    public JwtUtil() {
+        this(Clock.systemUTC(), CLAIMS_CACHE_MAX_ENTRIES);
+    }
+
+    JwtUtil(Clock clock, int cacheMaxEntries) {
+        this.clock = clock;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey)
+                .setClock(() -> Date.from(clock.instant())).build();
+    }
 
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verifies signature and expiry once and returns the claims. Tokens seen before are served from
+     * a bounded cache until they expire, skipping the HMAC check.
+     *
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or the signature does not match
+     */
+    public VerifiedClaims verify(String token) {
+        Instant now = clock.instant();
+
+        VerifiedClaims cached = claimsCache.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            claimsCache.remove(token);
+        }
+
+        Claims claims = extractAllClaims(token);
+        VerifiedClaims verified = new VerifiedClaims(
+                claims.getSubject(),
+                toLong(claims.get("userId")),
+                toShort(claims.get("role")),
+                toInteger(claims.get("ver")),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+
+        if (claimsCache.size() >= cacheMaxEntries) {
+            evict(now);
+        }
+        claimsCache.put(token, verified);
+        return verified;
     }
 
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getEmail();
     }
 
     public Long extractUserId(String token) {
-        Object val = extractAllClaims(token).get("userId");
-        return val instanceof Integer ? ((Integer) val).longValue() : (Long) val;
+        return verify(token).getUserId();
     }
 
     public Short extractRole(String token) {
-        Object val = extractAllClaims(token).get("role");
-        return val instanceof Integer ? ((Integer) val).shortValue() : (Short) val;
+        return verify(token).getRole();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public <T> T extractClaim(String token, Function<Claims,T> resolver) {
@@ -45,21 +101,53 @@ public class JwtUtil {
     }
 
     public boolean isTokenValid(String token, String email) {
-        return extractEmail(token).equals(email) && !isTokenExpired(token);
+        try {
+            return verify(token).getEmail().equals(email);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-		return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    public String generateToken(Long userId, String email, Short role) {
+    public String generateToken(Long userId, String email, Short role, Integer tokenVersion) {
         return Jwts.builder()
                 .setSubject(email)
                 .claim("userId", userId)
                 .claim("role", role)  // 0=USER, 1=ADMIN
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
+                .claim("ver", tokenVersion)
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + EXPIRATION_MS))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
+
+    // Drop expired entries first; if the cache is still full, drop an arbitrary slice of it.
+    private void evict(Instant now) {
+        claimsCache.values().removeIf(c -> c.isExpired(now));
+        if (claimsCache.size() < cacheMaxEntries) {
+            return;
+        }
+
+        int excess = claimsCache.size() - cacheMaxEntries / 2;
+        Iterator<String> it = claimsCache.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    int cachedTokens() {
+        return claimsCache.size();
+    }
+
+    private static Long toLong(Object val) {
+        return val instanceof Number ? ((Number) val).longValue() : null;
+    }
+
+    private static Short toShort(Object val) {
+        return val instanceof Number ? ((Number) val).shortValue() : null;
+    }
+
+    private static Integer toInteger(Object val) {
+        return val instanceof Number ? ((Number) val).intValue() : null;
+    }
 }
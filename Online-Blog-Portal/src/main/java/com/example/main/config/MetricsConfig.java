@@ -0,0 +1,64 @@
+package com.example.main.config;
+
+import com.example.main.config.AuthMetrics.Outcome;
+import com.example.main.service.impl.PostDetailCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer wiring beyond what Actuator instruments on its own (HTTP server requests, Spring Data
+ * repository invocations, Hikari pool): per-request SQL statement counting and the in-house
+ * counters of {@link AuthMetrics} and {@link PostDetailCache}, read at scrape time.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer sqlStatementCounter() {
+		return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+	}
+
+	@Bean
+	public MeterBinder authMetricsBinder(AuthMetrics authMetrics) {
+		return registry -> {
+			for (Outcome outcome : Outcome.values()) {
+				FunctionCounter.builder("auth.requests", authMetrics, m -> m.count(outcome))
+						.description("Requests by JWT authentication outcome")
+						.tag("outcome", outcome.name().toLowerCase())
+						.register(registry);
+			}
+			timer(registry, "auth.token.verify", authMetrics.getVerifyTimer());
+			timer(registry, "auth.user.resolve", authMetrics.getResolveTimer());
+		};
+	}
+
+	@Bean
+	public MeterBinder postDetailCacheBinder(PostDetailCache cache) {
+		return registry -> {
+			String name = "posts.detail";
+			FunctionCounter.builder("cache.gets", cache, c -> c.stat("hits")).tag("cache", name).tag("result", "hit")
+					.register(registry);
+			FunctionCounter.builder("cache.gets", cache, c -> c.stat("misses")).tag("cache", name)
+					.tag("result", "miss").register(registry);
+			FunctionCounter.builder("cache.evictions", cache, c -> c.stat("evictions")).tag("cache", name)
+					.register(registry);
+			Gauge.builder("cache.size", cache, c -> c.stat("entries")).tag("cache", name).register(registry);
+			Gauge.builder("cache.weight", cache, c -> c.stat("weightedSize")).tag("cache", name).baseUnit("bytes")
+					.register(registry);
+		};
+	}
+
+	private static void timer(MeterRegistry registry, String name, AuthMetrics.Timer timer) {
+		FunctionTimer.builder(name, timer, AuthMetrics.Timer::getCount, AuthMetrics.Timer::getTotalNanos,
+				TimeUnit.NANOSECONDS).register(registry);
+	}
+}
@@ -0,0 +1,157 @@
+package com.example.main.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request issues (see {@link SqlStatementCounter}) and:
+ * <ul>
+ * <li>records them per endpoint as {@code http.server.requests.sql} (tagged like
+ * {@code http.server.requests}; latency itself is timed by Spring's observation filter);</li>
+ * <li>sends them as {@code X-SQL-Count} when {@code sql.guard.header} is on. Headers must go out
+ * before the body, so the value covers statements up to the first body write; lazy loads during
+ * serialization are only in the metric, the log and the request attribute;</li>
+ * <li>logs requests at or over {@code sql.guard.warn-threshold} with their most repeated
+ * statement, which for an N+1 is the per-row query.</li>
+ * </ul>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "X-SQL-Count";
+
+	private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+	private final MeterRegistry registry;
+
+	@Value("${sql.guard.header:false}")
+	private boolean sendHeader;
+
+	// 0 disables offender logging (and per-statement tracking)
+	@Value("${sql.guard.warn-threshold:25}")
+	private int warnThreshold;
+
+	public RequestMetricsFilter(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long start = System.nanoTime();
+		HeaderStampingResponse stamped = sendHeader ? new HeaderStampingResponse(response) : null;
+		SqlStatementCounter.Scope scope = SqlStatementCounter.open(warnThreshold > 0);
+		try {
+			filterChain.doFilter(request, stamped != null ? stamped : response);
+		} finally {
+			scope.close();
+			int statements = scope.count();
+			if (stamped != null) {
+				stamped.stamp(statements); // bodiless responses (304, 204) get the full count here
+			}
+			request.setAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, statements);
+
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+			DistributionSummary.builder("http.server.requests.sql")
+					.description("SQL statements issued while handling a request")
+					.baseUnit("statements")
+					.tag("method", request.getMethod())
+					.tag("uri", uri)
+					.publishPercentileHistogram()
+					.maximumExpectedValue(200.0)
+					.register(registry)
+					.record(statements);
+
+			if (warnThreshold > 0 && statements >= warnThreshold) {
+				Counter.builder("http.server.requests.sql.over.budget")
+						.description("Requests that issued at least sql.guard.warn-threshold statements")
+						.tag("method", request.getMethod())
+						.tag("uri", uri)
+						.register(registry)
+						.increment();
+				Map.Entry<String, Integer> top = scope.mostRepeated();
+				log.warn("{} {} issued {} SQL statements in {} ms (threshold {}); most repeated {}x: {}",
+						request.getMethod(), request.getRequestURI(), statements, (System.nanoTime() - start) / 1_000_000,
+						warnThreshold, top != null ? top.getValue() : 0, top != null ? top.getKey() : "-");
+			}
+		}
+	}
+
+	/** Sets {@link #HEADER} just before the response is committed. */
+	private static final class HeaderStampingResponse extends HttpServletResponseWrapper {
+
+		private boolean stamped;
+
+		HeaderStampingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		void stamp(int statements) {
+			if (!stamped && !isCommitted()) {
+				setIntHeader(HEADER, statements);
+			}
+			stamped = true;
+		}
+
+		private void stamp() {
+			stamp(SqlStatementCounter.count());
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			stamp();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			stamp();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			stamp();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			stamp();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			stamp();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			stamp();
+			super.sendRedirect(location);
+		}
+	}
+}
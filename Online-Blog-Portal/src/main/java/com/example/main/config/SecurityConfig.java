@@ -2,6 +2,7 @@ package com.example.main.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -26,11 +27,15 @@ public class SecurityConfig {
 
 						// CHỈ cho GET post là public
 						.requestMatchers("/api/posts", "/api/posts/*").permitAll()
+						.requestMatchers(HttpMethod.GET, "/api/posts/*/views").permitAll()
 
 						// CREATE / UPDATE / DELETE cần token
 						.requestMatchers("/api/posts/create").authenticated().requestMatchers("/api/posts/**")
 						.authenticated()
 
+						// Metrics chỉ dành cho admin
+						.requestMatchers("/api/metrics/**").hasRole("ADMIN")
+
 						// Cho phép static uploads
 						.requestMatchers("/uploads/**").permitAll()
 
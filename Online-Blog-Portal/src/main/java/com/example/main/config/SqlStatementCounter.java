@@ -0,0 +1,102 @@
+package com.example.main.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Scope} is
+ * open. {@link RequestMetricsFilter} opens one per HTTP request; tests can open their own around
+ * any block. Statements from scheduled jobs and other threads are not counted, and only
+ * statements issued through Hibernate are seen (JdbcTemplate batches are not).
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	/** Request attribute holding the final statement count of the request, set by {@link RequestMetricsFilter}. */
+	public static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".count";
+
+	private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * A counting scope. Scopes nest: closing one restores the enclosing scope and adds its
+	 * statements to it. A scope opened inside a tracking scope tracks too, so the enclosing
+	 * {@link #mostRepeated()} still sees every statement.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final Scope parent;
+		private final Map<String, Integer> bySql; // null unless statements are tracked
+		private int count;
+		private boolean closed;
+
+		private Scope(Scope parent, boolean trackStatements) {
+			this.parent = parent;
+			this.bySql = trackStatements ? new HashMap<>() : null;
+		}
+
+		private void record(String sql, int times) {
+			count += times;
+			if (bySql != null) {
+				bySql.merge(sql, times, Integer::sum);
+			}
+		}
+
+		public int count() {
+			return count;
+		}
+
+		/** The statement issued most often and how often, or null when not tracked or none ran. */
+		public Map.Entry<String, Integer> mostRepeated() {
+			if (bySql == null || bySql.isEmpty()) {
+				return null;
+			}
+			return bySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (parent != null) {
+				if (bySql != null) {
+					bySql.forEach(parent::record);
+				} else {
+					parent.count += count; // parent does not track either (see open)
+				}
+				CURRENT.set(parent);
+			} else {
+				CURRENT.remove();
+			}
+		}
+	}
+
+	@Override
+	public String inspect(String sql) {
+		Scope scope = CURRENT.get();
+		if (scope != null) {
+			scope.record(sql, 1);
+		}
+		return sql;
+	}
+
+	public static Scope open() {
+		return open(false);
+	}
+
+	/** @param trackStatements also count per SQL string, for {@link Scope#mostRepeated()} */
+	public static Scope open(boolean trackStatements) {
+		Scope parent = CURRENT.get();
+		Scope scope = new Scope(parent, trackStatements || (parent != null && parent.bySql != null));
+		CURRENT.set(scope);
+		return scope;
+	}
+
+	/** Statements counted so far in the innermost open scope, or 0 when none is open. */
+	public static int count() {
+		Scope scope = CURRENT.get();
+		return scope == null ? 0 : scope.count;
+	}
+}
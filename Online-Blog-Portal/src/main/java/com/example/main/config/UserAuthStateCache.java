@@ -0,0 +1,75 @@
+package com.example.main.config;
+
+import com.example.main.entity.User;
+import com.example.main.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of each user's current token version, used by the stateless JWT path to reject
+ * tokens issued before a role change, credential change or deletion. Entries are refreshed from the
+ * database after a short TTL so changes made on other nodes are picked up too.
+ */
+@Component
+public class UserAuthStateCache {
+
+	private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+	private static final int MAX_ENTRIES = 50_000;
+	private static final int DELETED = -1;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+	public boolean isCurrent(Long userId, Integer tokenVersion) {
+		int version = tokenVersion != null ? tokenVersion : 0;
+		return version == currentVersion(userId);
+	}
+
+	public void invalidate(Long userId) {
+		entries.remove(userId);
+	}
+
+	private int currentVersion(Long userId) {
+		long now = System.nanoTime();
+		Entry entry = entries.get(userId);
+		if (entry != null && now - entry.loadedAt < TTL_NANOS) {
+			return entry.version;
+		}
+
+		// deleted users are cached too, so stale tokens don't hit the database on every request
+		int version = userRepository.findById(userId).map(User::getTokenVersion).orElse(DELETED);
+
+		if (entries.size() >= MAX_ENTRIES) {
+			evict(now);
+		}
+		entries.put(userId, new Entry(version, now));
+		return version;
+	}
+
+	private void evict(long now) {
+		entries.values().removeIf(e -> now - e.loadedAt >= TTL_NANOS);
+
+		int excess = entries.size() - MAX_ENTRIES / 2;
+		Iterator<Long> it = entries.keySet().iterator();
+		while (excess-- > 0 && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	private static final class Entry {
+		final int version;
+		final long loadedAt;
+
+		Entry(int version, long loadedAt) {
+			this.version = version;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
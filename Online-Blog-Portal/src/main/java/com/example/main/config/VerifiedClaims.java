@@ -0,0 +1,54 @@
+package com.example.main.config;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked by {@link JwtUtil#verify}.
+ */
+public final class VerifiedClaims {
+
+	private final String email;
+	private final Long userId;
+	private final Short role;
+	private final Integer tokenVersion;
+	private final Instant issuedAt;
+	private final Instant expiresAt;
+
+	public VerifiedClaims(String email, Long userId, Short role, Integer tokenVersion, Instant issuedAt,
+			Instant expiresAt) {
+		this.email = email;
+		this.userId = userId;
+		this.role = role;
+		this.tokenVersion = tokenVersion;
+		this.issuedAt = issuedAt;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public Short getRole() {
+		return role;
+	}
+
+	public Integer getTokenVersion() {
+		return tokenVersion;
+	}
+
+	public Instant getIssuedAt() {
+		return issuedAt;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public boolean isExpired(Instant now) {
+		return expiresAt != null && !expiresAt.isAfter(now);
+	}
+}
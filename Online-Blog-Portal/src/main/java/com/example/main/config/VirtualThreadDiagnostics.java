@@ -0,0 +1,100 @@
+package com.example.main.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports on {@code spring.threads.virtual.enabled}. With it set, Spring Boot runs Tomcat request
+ * handling, {@code @Scheduled} jobs (view, search and typeahead flushes and rebuilds) and the async
+ * task executor on virtual threads, but only on Java 21 or later; on an older runtime this logs that
+ * the application stays on platform threads.
+ *
+ * In virtual-thread mode a JFR stream watches {@code jdk.VirtualThreadPinned}: a virtual thread
+ * that blocks while it cannot unmount (inside {@code synchronized} or a native frame) holds on to its
+ * carrier thread. Pins of at least {@code threads.virtual.pinned-threshold-ms} are logged with the
+ * top of their stack and timed as {@code jvm.threads.virtual.pinned}.
+ */
+@Component
+public class VirtualThreadDiagnostics {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int STACK_DEPTH = 8;
+
+	private final MeterRegistry registry;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean requested;
+
+	@Value("${threads.virtual.pinned-threshold-ms:20}")
+	private long pinnedThresholdMs;
+
+	private RecordingStream stream;
+
+	public VirtualThreadDiagnostics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!requested) {
+			return;
+		}
+		int feature = Runtime.version().feature();
+		if (feature < 21) {
+			log.warn("spring.threads.virtual.enabled is set, but Java {} has no virtual threads; requests and "
+					+ "scheduled tasks run on platform threads", feature);
+			return;
+		}
+		log.info("Virtual threads enabled for request handling and scheduled tasks");
+		if (pinnedThresholdMs <= 0) {
+			return;
+		}
+
+		Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+				.description("Virtual threads blocked while pinned to their carrier thread")
+				.register(registry);
+		stream = new RecordingStream();
+		stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(pinnedThresholdMs)).withStackTrace();
+		stream.onEvent(PINNED_EVENT, event -> {
+			pinned.record(event.getDuration());
+			log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), top(event.getStackTrace()));
+		});
+		stream.startAsync();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	private static String top(RecordedStackTrace trace) {
+		if (trace == null) {
+			return " (no stack trace)";
+		}
+		StringBuilder sb = new StringBuilder();
+		List<RecordedFrame> frames = trace.getFrames();
+		for (int i = 0; i < frames.size() && i < STACK_DEPTH; i++) {
+			RecordedFrame f = frames.get(i);
+			sb.append("\n\tat ").append(f.getMethod().getType().getName()).append('.').append(f.getMethod().getName())
+					.append(':').append(f.getLineNumber());
+		}
+		return sb.toString();
+	}
+}
@@ -1,10 +1,15 @@
 package com.example.main.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -14,9 +19,36 @@ public class WebConfig implements WebMvcConfigurer {
 				.allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS").allowedHeaders("*").allowCredentials(true);
 	}
 
+	// Spring's resource handler already answers If-None-Match / If-Modified-Since with 304
+	// and serves Range requests; we only supply the ETag and cache policy.
 	@Override
 	public void addResourceHandlers(ResourceHandlerRegistry registry) {
-		registry.addResourceHandler("/uploads/**").addResourceLocations("file:uploads/"); 
-																						
+		// content-addressed blobs never change under the same name
+		registry.addResourceHandler("/uploads/cas/**").addResourceLocations("file:uploads/cas/")
+				.setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+				.setEtagGenerator(WebConfig::contentHashEtag);
+
+		// legacy timestamped uploads: also never rewritten, but may be deleted with their post
+		registry.addResourceHandler("/uploads/**").addResourceLocations("file:uploads/")
+				.setCacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePublic())
+				.setEtagGenerator(WebConfig::fileVersionEtag);
+	}
+
+	// file name is <sha256>.<ext>
+	static String contentHashEtag(Resource resource) {
+		String name = resource.getFilename();
+		if (name == null) {
+			return null;
+		}
+		int dot = name.indexOf('.');
+		return dot > 0 ? name.substring(0, dot) : name;
+	}
+
+	static String fileVersionEtag(Resource resource) {
+		try {
+			return Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified());
+		} catch (IOException e) {
+			return null;
+		}
 	}
 }
@@ -1,13 +1,21 @@
 package com.example.main.controller;
 
+import com.example.main.dto.CommentNode;
 import com.example.main.dto.CommentRequest;
 import com.example.main.dto.CommentResponse;
+import com.example.main.dto.CommentTreeResponse;
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.ResourceVersion;
 import com.example.main.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -21,9 +29,78 @@ public class CommentController {
         return ResponseEntity.ok(commentService.createComment(request));
     }
 
+    // Deprecated: the oldest comments.flat-max comments only; page with /post/{postId}/page and
+    // /{id}/replies instead. Conditional on the post's comment version, which comment writes and
+    // commenter renames bump: unchanged threads cost one PK lookup and a 304
+    @Deprecated
     @GetMapping("/post/{postId}")
-    public List<CommentResponse> getCommentsByPost(@PathVariable Long postId) {
-        return commentService.getCommentsByPost(postId);
+    public ResponseEntity<List<CommentResponse>> getCommentsByPost(@PathVariable Long postId, WebRequest request) {
+        Optional<ResourceVersion> version = commentService.getCommentsVersion(postId);
+        if (version.isPresent()
+                && request.checkNotModified(version.get().etag("c" + postId), version.get().lastModifiedMillis())) {
+            return null; // 304 already written
+        }
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/comments/post/" + postId + "/page>; rel=\"successor-version\"");
+        version.ifPresent(v -> res.eTag(v.etag("c" + postId)));
+        return res.body(commentService.getCommentsByPost(postId));
+    }
+
+    // Threaded view: ?limit= top-level comments per page (?cursor= from the previous page's nextCursor),
+    // ?maxDepth= levels of nesting, ?replyLimit= replies per level
+    @GetMapping("/post/{postId}/tree")
+    public ResponseEntity<?> getCommentTree(@PathVariable Long postId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer maxDepth,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) Integer replyLimit,
+                                            WebRequest request) {
+        Optional<ResourceVersion> version = commentService.getCommentsVersion(postId);
+        String etag = version.map(v -> v.etag("t" + postId + "-" + maxDepth + "-" + limit + "-" + replyLimit
+                + "-" + cursor)).orElse(null);
+        if (etag != null && request.checkNotModified(etag, version.get().lastModifiedMillis())) {
+            return null; // 304 already written
+        }
+
+        CommentTreeResponse tree;
+        try {
+            tree = commentService.getCommentTree(postId, cursor, maxDepth, limit, replyLimit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            res.eTag(etag);
+        }
+        return res.body(tree);
+    }
+
+    // Top-level comments of a post, oldest first, ?cursor= from the previous page's nextCursor
+    @GetMapping("/post/{postId}/page")
+    public ResponseEntity<?> getTopLevelComments(@PathVariable Long postId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<CommentNode> page = commentService.getTopLevelComments(postId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // "Load more replies" under one comment
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<?> getReplies(@PathVariable Long id,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<CommentNode> page = commentService.getReplies(id, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,32 @@
+package com.example.main.controller;
+
+import com.example.main.config.AuthMetrics;
+import com.example.main.service.impl.PostDetailCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+	private final AuthMetrics authMetrics;
+	private final PostDetailCache postDetailCache;
+
+	public MetricsController(AuthMetrics authMetrics, PostDetailCache postDetailCache) {
+		this.authMetrics = authMetrics;
+		this.postDetailCache = postDetailCache;
+	}
+
+	@GetMapping("/auth")
+	public Map<String, Object> auth() {
+		return authMetrics.snapshot();
+	}
+
+	@GetMapping("/post-cache")
+	public Map<String, Object> postCache() {
+		return postDetailCache.snapshot();
+	}
+}
@@ -1,15 +1,30 @@
 package com.example.main.controller;
 
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.PostDetail;
 import com.example.main.dto.PostRequest;
+import com.example.main.dto.PostSummary;
+import com.example.main.dto.PostViews;
+import com.example.main.dto.ResourceVersion;
+import com.example.main.dto.SearchResponse;
+import com.example.main.dto.Suggestion;
 import com.example.main.entity.Post;
 import com.example.main.service.PostService;
+import com.example.main.service.SearchService;
+import com.example.main.service.TrendingService;
+import com.example.main.service.TypeaheadService;
+import com.example.main.service.ViewCounterService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -19,6 +34,18 @@ public class PostController {
 	@Autowired
 	private PostService postService;
 
+	@Autowired
+	private SearchService searchService;
+
+	@Autowired
+	private TypeaheadService typeaheadService;
+
+	@Autowired
+	private ViewCounterService viewCounterService;
+
+	@Autowired
+	private TrendingService trendingService;
+
 	private final ObjectMapper mapper = new ObjectMapper();
 
 	// CREATE POST
@@ -36,16 +63,78 @@ public class PostController {
 		}
 	}
 
-	// GET ALL POSTS
+	// LIST POSTS (cursor paginated)
 	@GetMapping
-	public List<Post> getAllPosts() {
-		return postService.getAllPosts();
+	public ResponseEntity<?> getPosts(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) Short status,
+			@RequestParam(required = false) String category, @RequestParam(required = false) Boolean featured,
+			@RequestParam(required = false) Long authorId) {
+		try {
+			CursorPage<PostSummary> page = postService.getPosts(cursor, limit, status, category, featured, authorId);
+			return ResponseEntity.ok(page);
+
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 
-	// GET POST BY ID
+	// FULL-TEXT SEARCH (published posts, ranked)
+	@GetMapping("/search")
+	public ResponseEntity<?> search(@RequestParam("q") String query, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit) {
+		try {
+			SearchResponse result = searchService.search(query, cursor, limit);
+			return ResponseEntity.ok(result);
+
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	// TYPEAHEAD (title / category completions, served from memory)
+	@GetMapping("/suggest")
+	public ResponseEntity<List<Suggestion>> suggest(@RequestParam("q") String prefix,
+			@RequestParam(required = false) Integer limit) {
+		return ResponseEntity.ok().cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic())
+				.body(typeaheadService.suggest(prefix, limit));
+	}
+
+	// TRENDING (time-decayed views / comments / recency, served from memory)
+	@GetMapping("/trending")
+	public ResponseEntity<List<PostSummary>> trending(@RequestParam(required = false) String category,
+			@RequestParam(required = false) Integer limit) {
+		return ResponseEntity.ok().cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic())
+				.body(trendingService.getTrending(category, limit));
+	}
+
+	// GET POST BY ID (conditional: answers If-None-Match / If-Modified-Since with 304). The body holds
+	// only version-stamped fields so a 304 is never stale; the live view count is on /{id}/views.
 	@GetMapping("/{id}")
-	public ResponseEntity<Post> getById(@PathVariable Long id) {
-		return postService.getPostById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+	public ResponseEntity<PostDetail> getById(@PathVariable Long id, WebRequest request) {
+		Optional<ResourceVersion> version = postService.getPostVersion(id);
+		if (version.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		// a revalidated (304) read is still a view
+		viewCounterService.recordView(id);
+		if (request.checkNotModified(version.get().etag("p" + id), version.get().lastModifiedMillis())) {
+			return null; // 304 already written
+		}
+
+		return postService.getPostDetail(id, version.get().getVersion())
+				.map(post -> ResponseEntity.ok()
+						.cacheControl(CacheControl.noCache())
+						.eTag(new ResourceVersion(post.getVersion(), post.getUpdatedAt()).etag("p" + id))
+						.body(post))
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	// LIVE VIEW COUNT (never cached; the detail GET above is what counts a view)
+	@GetMapping("/{id}/views")
+	public ResponseEntity<PostViews> getViews(@PathVariable Long id) {
+		return postService.getPostViews(id)
+				.map(views -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(views))
+				.orElse(ResponseEntity.notFound().build());
 	}
 
 	// UPDATE
@@ -42,7 +42,8 @@ public class UserController {
 		if (!encoder.matches(request.getPassword(), user.getPasswordHash()))
 			return ResponseEntity.status(400).body("Invalid email or password");
 
-		String token = jwtUtil.generateToken(user.getUserId(), user.getEmail(), user.getRole());
+		String token = jwtUtil.generateToken(user.getUserId(), user.getEmail(), user.getRole(),
+				user.getTokenVersion());
 
 		Map<String, Object> res = new HashMap<>();
 		res.put("token", token);
@@ -0,0 +1,19 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+public class CommentNode extends CommentResponse {
+    private final int replyCount;
+    private final List<CommentNode> replies;
+
+    public CommentNode(CommentResponse c, int replyCount, List<CommentNode> replies) {
+        super(c.getId(), c.getPostId(), c.getUserId(), c.getParentId(), c.getContent(), c.getCreatedAt(),
+                c.getAuthorUsername(), c.getAuthorDisplayName());
+        this.replyCount = replyCount;
+        this.replies = replies;
+    }
+
+    // replyCount is the total number of direct replies; replies may hold fewer (page / depth limit)
+    public int getReplyCount() { return replyCount; }
+    public List<CommentNode> getReplies() { return replies; }
+}
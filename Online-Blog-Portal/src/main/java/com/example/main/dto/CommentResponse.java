@@ -9,14 +9,23 @@ public class CommentResponse {
     private Long parentId;
     private String content;
     private OffsetDateTime createdAt;
+    private String authorUsername;
+    private String authorDisplayName;
 
     public CommentResponse(Long id, Long postId, Long userId, Long parentId, String content, OffsetDateTime createdAt) {
+        this(id, postId, userId, parentId, content, createdAt, null, null);
+    }
+
+    public CommentResponse(Long id, Long postId, Long userId, Long parentId, String content, OffsetDateTime createdAt,
+                           String authorUsername, String authorDisplayName) {
         this.id = id;
         this.postId = postId;
         this.userId = userId;
         this.parentId = parentId;
         this.content = content;
         this.createdAt = createdAt;
+        this.authorUsername = authorUsername;
+        this.authorDisplayName = authorDisplayName;
     }
 
     // Getters
@@ -26,4 +35,6 @@ public class CommentResponse {
     public Long getParentId() { return parentId; }
     public String getContent() { return content; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
+    public String getAuthorUsername() { return authorUsername; }
+    public String getAuthorDisplayName() { return authorDisplayName; }
 }
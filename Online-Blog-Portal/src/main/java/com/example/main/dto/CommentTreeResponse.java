@@ -0,0 +1,23 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+// One page of top-level comments with their reply threads; nextCursor continues with the next roots
+public class CommentTreeResponse {
+    private final Long postId;
+    private final List<CommentNode> comments;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public CommentTreeResponse(Long postId, List<CommentNode> comments, String nextCursor) {
+        this.postId = postId;
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public Long getPostId() { return postId; }
+    public List<CommentNode> getComments() { return comments; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
@@ -0,0 +1,62 @@
+package com.example.main.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position (timestamp, id) in a listing, e.g. posts by (published_at, post_id) or comments
+ * by (created_at, comment_id). Clients only ever see the encoded form and pass it back unchanged.
+ */
+public class KeysetCursor {
+
+	private static final String NO_DATE = "-";
+
+	private final OffsetDateTime timestamp;
+	private final Long id;
+
+	public KeysetCursor(OffsetDateTime timestamp, Long id) {
+		this.timestamp = timestamp;
+		this.id = id;
+	}
+
+	public OffsetDateTime getTimestamp() {
+		return timestamp;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String encode() {
+		String date = NO_DATE;
+		if (timestamp != null) {
+			Instant instant = timestamp.toInstant();
+			date = instant.getEpochSecond() + "." + instant.getNano();
+		}
+		String raw = date + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static KeysetCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int sep = raw.indexOf(':');
+			String date = raw.substring(0, sep);
+			Long id = Long.valueOf(raw.substring(sep + 1));
+
+			OffsetDateTime timestamp = null;
+			if (!NO_DATE.equals(date)) {
+				int dot = date.indexOf('.');
+				Instant instant = Instant.ofEpochSecond(Long.parseLong(date.substring(0, dot)),
+						Long.parseLong(date.substring(dot + 1)));
+				timestamp = OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+			}
+			return new KeysetCursor(timestamp, id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
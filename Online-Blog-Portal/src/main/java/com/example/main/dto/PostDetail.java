@@ -0,0 +1,195 @@
+package com.example.main.dto;
+
+import com.example.main.entity.Post;
+import com.example.main.entity.PostImage;
+import com.example.main.entity.PostImageVariant;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of a post as served by {@code GET /api/posts/{id}}; same JSON shape as the
+ * entity minus the view count. Everything here changes only with the post's version, so it can be
+ * cached and shared between requests and is covered by the version ETag; the live count is served
+ * separately by {@code GET /api/posts/{id}/views}.
+ */
+public class PostDetail {
+
+	private final Long postId;
+	private final Long authorId;
+	private final String title;
+	private final String content;
+	private final Short status;
+	private final String category;
+	private final String thumbnailUrl;
+	private final String excerpt;
+	private final OffsetDateTime createdAt;
+	private final OffsetDateTime publishedAt;
+	private final Boolean featured;
+	private final OffsetDateTime updatedAt;
+	private final Long version;
+	private final List<Image> images;
+
+	public static class Image {
+
+		private final Long id;
+		private final String imageUrl;
+		private final List<Variant> variants;
+		private final String srcset;
+
+		public Image(Long id, String imageUrl, List<Variant> variants) {
+			this.id = id;
+			this.imageUrl = imageUrl;
+			this.variants = List.copyOf(variants);
+			this.srcset = srcset(this.variants);
+		}
+
+		// responsive widths only, the fixed-size thumbnail crop has a different aspect ratio
+		private static String srcset(List<Variant> variants) {
+			String set = variants.stream().filter(v -> !PostImageVariant.KIND_THUMBNAIL.equals(v.getKind()))
+					.sorted(Comparator.comparing(Variant::getWidth)).map(v -> v.getImageUrl() + " " + v.getWidth() + "w")
+					.collect(Collectors.joining(", "));
+			return set.isEmpty() ? null : set;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getImageUrl() {
+			return imageUrl;
+		}
+
+		public List<Variant> getVariants() {
+			return variants;
+		}
+
+		/** {@code <img srcset>} over the resized copies, or null until they have been generated. */
+		public String getSrcset() {
+			return srcset;
+		}
+	}
+
+	public static class Variant {
+
+		private final String kind;
+		private final Integer width;
+		private final Integer height;
+		private final String imageUrl;
+
+		public Variant(String kind, Integer width, Integer height, String imageUrl) {
+			this.kind = kind;
+			this.width = width;
+			this.height = height;
+			this.imageUrl = imageUrl;
+		}
+
+		public String getKind() {
+			return kind;
+		}
+
+		public Integer getWidth() {
+			return width;
+		}
+
+		public Integer getHeight() {
+			return height;
+		}
+
+		public String getImageUrl() {
+			return imageUrl;
+		}
+	}
+
+	public PostDetail(Long postId, Long authorId, String title, String content, Short status, String category,
+			String thumbnailUrl, String excerpt, OffsetDateTime createdAt, OffsetDateTime publishedAt,
+			Boolean featured, OffsetDateTime updatedAt, Long version, List<Image> images) {
+		this.postId = postId;
+		this.authorId = authorId;
+		this.title = title;
+		this.content = content;
+		this.status = status;
+		this.category = category;
+		this.thumbnailUrl = thumbnailUrl;
+		this.excerpt = excerpt;
+		this.createdAt = createdAt;
+		this.publishedAt = publishedAt;
+		this.featured = featured;
+		this.updatedAt = updatedAt;
+		this.version = version;
+		this.images = List.copyOf(images);
+	}
+
+	/** Copies a loaded post, its images must be initialized; {@code variants} are those of its images. */
+	public static PostDetail from(Post p, List<PostImageVariant> variants) {
+		Map<Long, List<Variant>> byImage = variants.stream().collect(Collectors.groupingBy(
+				v -> v.getImage().getId(),
+				Collectors.mapping(v -> new Variant(v.getKind(), v.getWidth(), v.getHeight(), v.getImageUrl()),
+						Collectors.toList())));
+		List<Image> images = p.getImages().stream()
+				.map((PostImage i) -> new Image(i.getId(), i.getImageUrl(), byImage.getOrDefault(i.getId(), List.of())))
+				.toList();
+		return new PostDetail(p.getPostId(), p.getAuthorId(), p.getTitle(), p.getContent(), p.getStatus(),
+				p.getCategory(), p.getThumbnailUrl(), p.getExcerpt(), p.getCreatedAt(), p.getPublishedAt(),
+				p.getFeatured(), p.getUpdatedAt(), p.getVersion(), images);
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public Long getAuthorId() {
+		return authorId;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public Short getStatus() {
+		return status;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+
+	public String getThumbnailUrl() {
+		return thumbnailUrl;
+	}
+
+	public String getExcerpt() {
+		return excerpt;
+	}
+
+	public OffsetDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public OffsetDateTime getPublishedAt() {
+		return publishedAt;
+	}
+
+	public Boolean getFeatured() {
+		return featured;
+	}
+
+	public OffsetDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public List<Image> getImages() {
+		return images;
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.main.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read model for post list views. Populated by a JPQL constructor expression, so it never loads
+ * {@code content} or the {@code images} collection.
+ */
+public class PostSummary {
+    private Long postId;
+    private Long authorId;
+    private String title;
+    private String category;
+    private String thumbnailUrl;
+    private Short status;
+    private Boolean featured;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime publishedAt;
+    private String excerpt;
+    private Integer commentCount;
+
+    public PostSummary(Long postId, Long authorId, String title, String category, String thumbnailUrl,
+                       Short status, Boolean featured, OffsetDateTime createdAt, OffsetDateTime publishedAt,
+                       String excerpt, Integer commentCount) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.title = title;
+        this.category = category;
+        this.thumbnailUrl = thumbnailUrl;
+        this.status = status;
+        this.featured = featured;
+        this.createdAt = createdAt;
+        this.publishedAt = publishedAt;
+        this.excerpt = excerpt;
+        this.commentCount = commentCount;
+    }
+
+    // Getters
+    public Long getPostId() { return postId; }
+    public Long getAuthorId() { return authorId; }
+    public String getTitle() { return title; }
+    public String getCategory() { return category; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public Short getStatus() { return status; }
+    public Boolean getFeatured() { return featured; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public OffsetDateTime getPublishedAt() { return publishedAt; }
+    public String getExcerpt() { return excerpt; }
+    public Integer getCommentCount() { return commentCount; }
+}
@@ -0,0 +1,21 @@
+package com.example.main.dto;
+
+/** Live view count of a post, served apart from {@link PostDetail} so the detail can be revalidated. */
+public class PostViews {
+
+	private final Long postId;
+	private final long viewCount;
+
+	public PostViews(Long postId, long viewCount) {
+		this.postId = postId;
+		this.viewCount = viewCount;
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public long getViewCount() {
+		return viewCount;
+	}
+}
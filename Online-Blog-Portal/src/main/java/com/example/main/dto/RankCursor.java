@@ -0,0 +1,46 @@
+package com.example.main.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position (score, id) in a ranked search, ordered by score DESC then id DESC. Float
+ * scores round-trip exactly through {@link Float#toString}, so the next page resumes on ties.
+ */
+public class RankCursor {
+
+	private final float score;
+	private final long id;
+
+	public RankCursor(float score, long id) {
+		this.score = score;
+		this.id = id;
+	}
+
+	public float getScore() {
+		return score;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String encode() {
+		String raw = score + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static RankCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int sep = raw.indexOf(':');
+			float score = Float.parseFloat(raw.substring(0, sep));
+			if (Float.isNaN(score)) {
+				throw new NumberFormatException();
+			}
+			return new RankCursor(score, Long.parseLong(raw.substring(sep + 1)));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.example.main.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Version stamp of a resource, read with a narrow query so conditional GETs can be answered
+ * without loading the resource itself.
+ */
+public class ResourceVersion {
+    private final Long version;
+    private final OffsetDateTime modifiedAt;
+
+    public ResourceVersion(Long version, OffsetDateTime modifiedAt) {
+        this.version = version;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public Long getVersion() { return version; }
+    public OffsetDateTime getModifiedAt() { return modifiedAt; }
+
+    public String etag(String prefix) {
+        return "\"" + prefix + "-v" + (version != null ? version : 0) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return modifiedAt != null ? modifiedAt.toInstant().toEpochMilli() : -1;
+    }
+}
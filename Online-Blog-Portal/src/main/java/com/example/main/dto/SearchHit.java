@@ -0,0 +1,36 @@
+package com.example.main.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A {@link PostSummary} ranked by a search. {@code snippet} holds matched fragments wrapped in
+ * {@code <mark>} when the engine produces them, otherwise null and clients fall back to the excerpt.
+ */
+public class SearchHit extends PostSummary {
+
+	private final float score;
+	private final String snippet;
+
+	public SearchHit(Long postId, Long authorId, String title, String category, String thumbnailUrl, Short status,
+			Boolean featured, OffsetDateTime createdAt, OffsetDateTime publishedAt, String excerpt,
+			Integer commentCount, float score, String snippet) {
+		super(postId, authorId, title, category, thumbnailUrl, status, featured, createdAt, publishedAt, excerpt,
+				commentCount);
+		this.score = score;
+		this.snippet = snippet;
+	}
+
+	public SearchHit(PostSummary s, float score, String snippet) {
+		this(s.getPostId(), s.getAuthorId(), s.getTitle(), s.getCategory(), s.getThumbnailUrl(), s.getStatus(),
+				s.getFeatured(), s.getCreatedAt(), s.getPublishedAt(), s.getExcerpt(), s.getCommentCount(), score,
+				snippet);
+	}
+
+	public float getScore() {
+		return score;
+	}
+
+	public String getSnippet() {
+		return snippet;
+	}
+}
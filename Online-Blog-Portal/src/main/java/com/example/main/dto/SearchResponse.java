@@ -0,0 +1,41 @@
+package com.example.main.dto;
+
+import java.util.List;
+
+public class SearchResponse {
+
+	private final String query;
+	// number of matching posts; only computed for the first page
+	private final Integer total;
+	private final List<SearchHit> items;
+	private final String nextCursor;
+	private final boolean hasMore;
+
+	public SearchResponse(String query, Integer total, List<SearchHit> items, String nextCursor) {
+		this.query = query;
+		this.total = total;
+		this.items = items;
+		this.nextCursor = nextCursor;
+		this.hasMore = nextCursor != null;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public Integer getTotal() {
+		return total;
+	}
+
+	public List<SearchHit> getItems() {
+		return items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isHasMore() {
+		return hasMore;
+	}
+}
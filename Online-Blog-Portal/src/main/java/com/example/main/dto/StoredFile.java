@@ -0,0 +1,17 @@
+package com.example.main.dto;
+
+public class StoredFile {
+    private final String url;
+    private final String sha256;
+    private final long size;
+
+    public StoredFile(String url, String sha256, long size) {
+        this.url = url;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    public String getUrl() { return url; }
+    public String getSha256() { return sha256; }
+    public long getSize() { return size; }
+}
@@ -0,0 +1,26 @@
+package com.example.main.dto;
+
+public class Suggestion {
+
+	private final String type; // "post" or "category"
+	private final String text;
+	private final Long postId; // null for categories
+
+	public Suggestion(String type, String text, Long postId) {
+		this.type = type;
+		this.text = text;
+		this.postId = postId;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+}
@@ -1,7 +1,10 @@
 package com.example.main.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +36,10 @@ public class Post {
 	@Column(name = "thumbnail_url", length = 255)
 	private String thumbnailUrl;
 
+	// plain-text preview kept alongside content so list views never read the TEXT column
+	@Column(length = 300)
+	private String excerpt;
+
 	@Column(name = "created_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
 	private OffsetDateTime createdAt;
 
@@ -42,6 +49,34 @@ public class Post {
 	@Column
 	private Boolean featured;
 
+	@Column(name = "updated_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+	private OffsetDateTime updatedAt;
+
+	// row version, drives the post ETag
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint not null default 0")
+	private Long version = 0L;
+
+	// bumped by CommentServiceImpl through PostRepository, never written from the entity
+	@JsonIgnore
+	@Column(name = "comment_version", insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+	private Long commentVersion;
+
+	@JsonIgnore
+	@Column(name = "comments_updated_at", insertable = false, updatable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+	private OffsetDateTime commentsUpdatedAt;
+
+	// denormalized, same update as commentVersion; repaired by CommentServiceImpl.reconcileCommentCounts
+	@JsonIgnore
+	@ColumnDefault("0")
+	@Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+	private Integer commentCount;
+
+	// flushed total from post_view_counts; add ViewCounterService's pending views for the live count
+	@JsonIgnore
+	@Formula("(SELECT v.views FROM post_view_counts v WHERE v.post_id = post_id)")
+	private Long storedViews;
+
 	@OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
 	@JsonManagedReference
 	private List<PostImage> images = new ArrayList<>();
@@ -49,6 +84,12 @@ public class Post {
 	@PrePersist
 	protected void onCreate() {
 		this.createdAt = OffsetDateTime.now();
+		this.updatedAt = this.createdAt;
+	}
+
+	@PreUpdate
+	protected void onUpdate() {
+		this.updatedAt = OffsetDateTime.now();
 	}
 
 	public Long getPostId() {
@@ -107,6 +148,14 @@ public class Post {
 		this.thumbnailUrl = thumbnailUrl;
 	}
 
+	public String getExcerpt() {
+		return excerpt;
+	}
+
+	public void setExcerpt(String excerpt) {
+		this.excerpt = excerpt;
+	}
+
 	public OffsetDateTime getCreatedAt() {
 		return createdAt;
 	}
@@ -131,6 +180,38 @@ public class Post {
 		this.featured = featured;
 	}
 
+	public OffsetDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(OffsetDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Long getCommentVersion() {
+		return commentVersion;
+	}
+
+	public OffsetDateTime getCommentsUpdatedAt() {
+		return commentsUpdatedAt;
+	}
+
+	public Integer getCommentCount() {
+		return commentCount;
+	}
+
+	public Long getStoredViews() {
+		return storedViews;
+	}
+
 	public List<PostImage> getImages() {
 		return images;
 	}
@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "post_images")
+@Table(name = "post_images", indexes = @Index(name = "idx_post_images_image_url", columnList = "image_url"))
 public class PostImage {
 
 	@Id
@@ -0,0 +1,97 @@
+package com.example.main.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+@Entity
+@Table(name = "post_image_variants", indexes = {
+		@Index(name = "idx_post_image_variants_image_id", columnList = "image_id"),
+		@Index(name = "idx_post_image_variants_image_url", columnList = "image_url") })
+public class PostImageVariant {
+
+	public static final String KIND_THUMBNAIL = "thumb";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "image_id", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	@JsonIgnore
+	private PostImage image;
+
+	// "thumb" for the fixed-size crop, "w480" / "w960" ... for responsive widths
+	@Column(length = 16, nullable = false)
+	private String kind;
+
+	@Column(nullable = false)
+	private Integer width;
+
+	@Column(nullable = false)
+	private Integer height;
+
+	@Column(name = "image_url", length = 255, nullable = false)
+	private String imageUrl;
+
+	public PostImageVariant() {
+	}
+
+	public PostImageVariant(PostImage image, String kind, int width, int height, String imageUrl) {
+		this.image = image;
+		this.kind = kind;
+		this.width = width;
+		this.height = height;
+		this.imageUrl = imageUrl;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public PostImage getImage() {
+		return image;
+	}
+
+	public void setImage(PostImage image) {
+		this.image = image;
+	}
+
+	public String getKind() {
+		return kind;
+	}
+
+	public void setKind(String kind) {
+		this.kind = kind;
+	}
+
+	public Integer getWidth() {
+		return width;
+	}
+
+	public void setWidth(Integer width) {
+		this.width = width;
+	}
+
+	public Integer getHeight() {
+		return height;
+	}
+
+	public void setHeight(Integer height) {
+		this.height = height;
+	}
+
+	public String getImageUrl() {
+		return imageUrl;
+	}
+
+	public void setImageUrl(String imageUrl) {
+		this.imageUrl = imageUrl;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.main.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Persisted view total per post. Rows are only written by ViewCounterServiceImpl's batched flush
+ * (plain JDBC); the entity exists so the table and its cascading foreign key are part of the
+ * schema, and Post reads the total through a formula.
+ */
+@Entity
+@Table(name = "post_view_counts")
+public class PostViewCount {
+
+	@Id
+	@Column(name = "post_id")
+	private Long postId;
+
+	@MapsId
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "post_id")
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Post post;
+
+	@Column(nullable = false, columnDefinition = "bigint not null default 0")
+	private Long views = 0L;
+
+	@Column(name = "updated_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+	private OffsetDateTime updatedAt;
+
+	public PostViewCount() {
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public Long getViews() {
+		return views;
+	}
+
+	public OffsetDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+}
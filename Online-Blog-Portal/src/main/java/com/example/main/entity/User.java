@@ -29,6 +29,10 @@ public class User {
 	@Column(nullable = false, updatable = false)
 	private OffsetDateTime createdAt;
 
+	// bumped whenever issued tokens must stop working (role / credential change)
+	@Column(name = "token_version", nullable = false, columnDefinition = "integer not null default 0")
+	private Integer tokenVersion = 0;
+
 	public User() {
 	}
 
@@ -93,4 +97,12 @@ public class User {
 	public void setCreatedAt(OffsetDateTime createdAt) {
 		this.createdAt = createdAt;
 	}
+
+	public Integer getTokenVersion() {
+		return tokenVersion;
+	}
+
+	public void setTokenVersion(Integer tokenVersion) {
+		this.tokenVersion = tokenVersion;
+	}
 }
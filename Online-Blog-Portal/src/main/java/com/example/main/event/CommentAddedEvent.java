@@ -0,0 +1,23 @@
+package com.example.main.event;
+
+import java.time.OffsetDateTime;
+
+/** Published by CommentServiceImpl inside the transaction that saved the comment. */
+public class CommentAddedEvent {
+
+	private final Long postId;
+	private final OffsetDateTime createdAt;
+
+	public CommentAddedEvent(Long postId, OffsetDateTime createdAt) {
+		this.postId = postId;
+		this.createdAt = createdAt;
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public OffsetDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
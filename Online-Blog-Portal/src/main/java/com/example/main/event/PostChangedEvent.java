@@ -0,0 +1,36 @@
+package com.example.main.event;
+
+import com.example.main.entity.Post;
+
+/**
+ * Published synchronously by PostServiceImpl after a post is written. Listeners must copy what they
+ * need from {@code post}; it is null for deletions.
+ */
+public class PostChangedEvent {
+
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final Type type;
+	private final Long postId;
+	private final Post post;
+
+	public PostChangedEvent(Type type, Long postId, Post post) {
+		this.type = type;
+		this.postId = postId;
+		this.post = post;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public Post getPost() {
+		return post;
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.main.event;
+
+import java.time.Instant;
+import java.util.Map;
+
+/** Published by ViewCounterServiceImpl with the per-post view deltas it just wrote. */
+public class PostViewsFlushedEvent {
+
+	private final Map<Long, Long> views;
+	private final Instant flushedAt;
+
+	public PostViewsFlushedEvent(Map<Long, Long> views, Instant flushedAt) {
+		this.views = views;
+		this.flushedAt = flushedAt;
+	}
+
+	public Map<Long, Long> getViews() {
+		return views;
+	}
+
+	public Instant getFlushedAt() {
+		return flushedAt;
+	}
+}
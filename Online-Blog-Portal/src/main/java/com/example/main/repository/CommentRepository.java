@@ -1,12 +1,77 @@
 package com.example.main.repository;
 
+import com.example.main.dto.CommentResponse;
 import com.example.main.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 	List<Comment> findByPost_PostId(Long postId);
+
+	// Author name columns come from the same join, so a page of comments is a single query
+	String ROW_SELECT = "SELECT new com.example.main.dto.CommentResponse(c.commentId, c.post.postId, a.userId,"
+			+ " p.commentId, c.content, c.createdAt, a.username, a.displayName)"
+			+ " FROM Comment c JOIN c.author a LEFT JOIN c.parent p";
+
+	@Query(ROW_SELECT + " WHERE c.commentId = :commentId")
+	Optional<CommentResponse> findRowById(@Param("commentId") Long commentId);
+
+	// Comments of a post as plain rows (no post/author/parent proxies), oldest first
+	@Query(ROW_SELECT + " WHERE c.post.postId = :postId"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<CommentResponse> findRowsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+	// Keyset pages ordered by (created_at, comment_id) ascending: new comments only ever land
+	// after the last page, so cursors stay valid under concurrent inserts.
+
+	@Query(ROW_SELECT + " WHERE c.post.postId = :postId AND c.parent IS NULL"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<CommentResponse> findTopLevelPage(@Param("postId") Long postId, Pageable pageable);
+
+	@Query(ROW_SELECT + " WHERE c.post.postId = :postId AND c.parent IS NULL"
+			+ " AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.commentId > :commentId))"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<CommentResponse> findTopLevelPageAfter(@Param("postId") Long postId,
+			@Param("createdAt") OffsetDateTime createdAt, @Param("commentId") Long commentId, Pageable pageable);
+
+	@Query(ROW_SELECT + " WHERE p.commentId = :parentId"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<CommentResponse> findReplyPage(@Param("parentId") Long parentId, Pageable pageable);
+
+	@Query(ROW_SELECT + " WHERE p.commentId = :parentId"
+			+ " AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.commentId > :commentId))"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<CommentResponse> findReplyPageAfter(@Param("parentId") Long parentId,
+			@Param("createdAt") OffsetDateTime createdAt, @Param("commentId") Long commentId, Pageable pageable);
+
+	// The given roots and their replies down to maxDepth levels (roots are level 1), oldest first, as
+	// [id, postId, userId, parentId, content, createdAt, authorUsername, authorDisplayName, replyCount];
+	// replyCount counts all direct replies, including those below maxDepth that are not returned
+	@Query("WITH thread AS ("
+			+ " SELECT c.commentId AS id, 1 AS depth FROM Comment c WHERE c.commentId IN :rootIds"
+			+ " UNION ALL"
+			+ " SELECT c.commentId AS id, t.depth + 1 AS depth FROM Comment c JOIN thread t ON c.parent.commentId = t.id"
+			+ " WHERE t.depth < :maxDepth)"
+			+ " SELECT c.commentId, c.post.postId, a.userId, p.commentId, c.content, c.createdAt, a.username,"
+			+ " a.displayName, (SELECT COUNT(r) FROM Comment r WHERE r.parent.commentId = c.commentId)"
+			+ " FROM thread t JOIN Comment c ON c.commentId = t.id JOIN c.author a LEFT JOIN c.parent p"
+			+ " ORDER BY c.createdAt ASC, c.commentId ASC")
+	List<Object[]> findThreadRows(@Param("rootIds") List<Long> rootIds, @Param("maxDepth") int maxDepth);
+
+	// [parentId, replyCount] for the given parents
+	@Query("SELECT c.parent.commentId, COUNT(c) FROM Comment c WHERE c.parent.commentId IN :parentIds"
+			+ " GROUP BY c.parent.commentId")
+	List<Object[]> countReplies(@Param("parentIds") List<Long> parentIds);
+
+	// [postId, createdAt] of comments since the given time
+	@Query("SELECT c.post.postId, c.createdAt FROM Comment c WHERE c.createdAt >= :since")
+	List<Object[]> findCreatedSince(@Param("since") OffsetDateTime since);
 }
@@ -3,6 +3,8 @@ package com.example.main.repository;
 import com.example.main.entity.PostImage;
 import com.example.main.entity.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,9 @@ import java.util.List;
 @Repository
 public interface PostImageRepository extends JpaRepository<PostImage, Long> {
 	List<PostImage> findByPost(Post post);
+
+	long countByImageUrl(String imageUrl);
+
+	@Query("SELECT DISTINCT i.imageUrl FROM PostImage i WHERE i.imageUrl IN :urls")
+	List<String> findReferencedUrls(@Param("urls") List<String> urls);
 }
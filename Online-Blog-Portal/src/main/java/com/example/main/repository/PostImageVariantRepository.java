@@ -0,0 +1,20 @@
+package com.example.main.repository;
+
+import com.example.main.entity.PostImageVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PostImageVariantRepository extends JpaRepository<PostImageVariant, Long> {
+
+	List<PostImageVariant> findByImage_Post_PostId(Long postId);
+
+	long countByImageUrl(String imageUrl);
+
+	@Query("SELECT DISTINCT v.imageUrl FROM PostImageVariant v WHERE v.imageUrl IN :urls")
+	List<String> findReferencedUrls(@Param("urls") List<String> urls);
+}
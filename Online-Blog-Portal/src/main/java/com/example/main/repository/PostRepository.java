@@ -1,15 +1,144 @@
 package com.example.main.repository;
 
+import com.example.main.dto.PostSummary;
+import com.example.main.dto.ResourceVersion;
 import com.example.main.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
 
 	List<Post> findByAuthorId(Long authorId);
 
 	List<Post> findByCategory(String category);
+
+	// Keyset listing, ordered by (published_at DESC NULLS LAST, post_id DESC): see PostRepositoryCustom.
+	// Only rows written before the excerpt column existed fall back to reading content.
+
+	String SUMMARY_SELECT = "SELECT new com.example.main.dto.PostSummary(p.postId, p.authorId, p.title,"
+			+ " p.category, p.thumbnailUrl, p.status, p.featured, p.createdAt, p.publishedAt,"
+			+ " COALESCE(p.excerpt, SUBSTRING(p.content, 1, 200)), p.commentCount) FROM Post p";
+
+	// Version stamps for conditional GETs (primary-key lookups, no content / images)
+
+	@Query("SELECT new com.example.main.dto.ResourceVersion(p.version, COALESCE(p.updatedAt, p.createdAt))"
+			+ " FROM Post p WHERE p.postId = :postId")
+	Optional<ResourceVersion> findVersion(@Param("postId") Long postId);
+
+	// flushed view total (0 before the first flush); empty if the post does not exist
+	@Query("SELECT COALESCE(p.storedViews, 0L) FROM Post p WHERE p.postId = :postId")
+	Optional<Long> findStoredViews(@Param("postId") Long postId);
+
+	@Query("SELECT new com.example.main.dto.ResourceVersion(p.commentVersion, p.commentsUpdatedAt)"
+			+ " FROM Post p WHERE p.postId = :postId")
+	Optional<ResourceVersion> findCommentVersion(@Param("postId") Long postId);
+
+	// one row update per comment write: new comment ETag plus the denormalized count
+	@Modifying
+	@Transactional
+	@Query("UPDATE Post p SET p.commentVersion = p.commentVersion + 1, p.commentsUpdatedAt = :now,"
+			+ " p.commentCount = p.commentCount + :delta WHERE p.postId = :postId")
+	int applyCommentChange(@Param("postId") Long postId, @Param("delta") int delta, @Param("now") OffsetDateTime now);
+
+	// comment responses carry the author's username and display name, so a rename has to change the
+	// comment ETag of every post the user commented on
+	@Modifying
+	@Transactional
+	@Query("UPDATE Post p SET p.commentVersion = p.commentVersion + 1, p.commentsUpdatedAt = :now"
+			+ " WHERE p.postId IN (SELECT c.post.postId FROM Comment c WHERE c.author.userId = :userId)")
+	int touchCommentsByAuthor(@Param("userId") Long userId, @Param("now") OffsetDateTime now);
+
+	// row-locks a post_id range, in id order; reconcileCommentCounts must run after it in the same
+	// transaction (see CommentServiceImpl.reconcileCommentCounts)
+	@Transactional(propagation = Propagation.MANDATORY)
+	@Query(nativeQuery = true, value = "SELECT post_id FROM posts WHERE post_id BETWEEN :fromId AND :toId"
+			+ " ORDER BY post_id FOR UPDATE")
+	List<Long> lockRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+	// repairs comment_count drift for a post_id range; returns the number of rows fixed
+	@Modifying
+	@Transactional(propagation = Propagation.MANDATORY)
+	@Query("UPDATE Post p SET p.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.post.postId = p.postId)"
+			+ " WHERE p.postId BETWEEN :fromId AND :toId"
+			+ " AND p.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.post.postId = p.postId)")
+	int reconcileCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+	@Query("SELECT MAX(p.postId) FROM Post p")
+	Long findMaxPostId();
+
+	@Modifying
+	@Transactional
+	@Query("UPDATE Post p SET p.thumbnailUrl = :thumbnailUrl, p.version = p.version + 1, p.updatedAt = :now"
+			+ " WHERE p.postId = :postId AND p.thumbnailUrl = :originalUrl")
+	int replaceThumbnail(@Param("postId") Long postId, @Param("originalUrl") String originalUrl,
+			@Param("thumbnailUrl") String thumbnailUrl, @Param("now") OffsetDateTime now);
+
+	// new image variants change the detail's srcset, so cached copies and ETags must move on
+	@Modifying
+	@Transactional
+	@Query("UPDATE Post p SET p.version = p.version + 1, p.updatedAt = :now WHERE p.postId = :postId")
+	int touchVersion(@Param("postId") Long postId, @Param("now") OffsetDateTime now);
+
+	// Search / typeahead index maintenance (see InMemorySearchService, TypeaheadServiceImpl)
+
+	@Query(SUMMARY_SELECT + " WHERE p.postId IN :ids")
+	List<PostSummary> findSummariesByIds(@Param("ids") List<Long> ids);
+
+	@Query("SELECT p.postId FROM Post p WHERE p.status = 1")
+	List<Long> findPublishedIds();
+
+	// [postId, title, category, featured, commentCount] for the typeahead index
+	@Query("SELECT p.postId, p.title, p.category, p.featured, p.commentCount FROM Post p WHERE p.status = 1")
+	List<Object[]> findPublishedTitles();
+
+	// [postId, category, publishedAt or createdAt] for rebuilding the trending boards
+	@Query("SELECT p.postId, p.category, COALESCE(p.publishedAt, p.createdAt) FROM Post p WHERE p.status = 1")
+	List<Object[]> findPublishedForTrending();
+
+	@Query("SELECT p FROM Post p WHERE p.status = 1 AND p.postId > :afterId ORDER BY p.postId")
+	List<Post> findPublishedBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("SELECT p FROM Post p WHERE p.updatedAt >= :since")
+	List<Post> findUpdatedSince(@Param("since") OffsetDateTime since);
+
+	// search.mode=postgres: ranked match on the generated search_vector column (GIN index
+	// idx_posts_search_vector, see database.txt). The inner query ranks and pages on ids only,
+	// so ts_headline runs for the returned rows, not every match.
+	// Row: post_id, author_id, title, category, thumbnail_url, status, featured, created_at,
+	// published_at, excerpt, comment_count, rank, snippet
+
+	String TS_MATCH = " FROM posts p, to_tsquery('blog_search', :tsquery) q"
+			+ " WHERE p.status = 1 AND p.search_vector @@ q";
+
+	String TS_PAGE = "SELECT p.post_id, p.author_id, p.title, p.category, p.thumbnail_url, p.status, p.featured,"
+			+ " p.created_at, p.published_at, COALESCE(p.excerpt, SUBSTRING(p.content, 1, 200)), p.comment_count, r.rank,"
+			+ " ts_headline('blog_search', p.content, q,"
+			+ " 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8')"
+			+ " FROM (SELECT p.post_id, ts_rank_cd(p.search_vector, q) AS rank" + TS_MATCH;
+
+	String TS_PAGE_END = " ORDER BY rank DESC, p.post_id DESC LIMIT :limit) r"
+			+ " JOIN posts p ON p.post_id = r.post_id, to_tsquery('blog_search', :tsquery) q"
+			+ " ORDER BY r.rank DESC, p.post_id DESC";
+
+	@Query(nativeQuery = true, value = TS_PAGE + TS_PAGE_END)
+	List<Object[]> searchFirstPage(@Param("tsquery") String tsquery, @Param("limit") int limit);
+
+	@Query(nativeQuery = true, value = TS_PAGE
+			+ " AND (ts_rank_cd(p.search_vector, q), p.post_id) < (:rank, :postId)" + TS_PAGE_END)
+	List<Object[]> searchPageAfter(@Param("tsquery") String tsquery, @Param("rank") float rank,
+			@Param("postId") Long postId, @Param("limit") int limit);
+
+	@Query(nativeQuery = true, value = "SELECT COUNT(*)" + TS_MATCH)
+	long countSearchMatches(@Param("tsquery") String tsquery);
 }
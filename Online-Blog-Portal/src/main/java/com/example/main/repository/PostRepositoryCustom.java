@@ -0,0 +1,28 @@
+package com.example.main.repository;
+
+import com.example.main.dto.PostSummary;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Keyset listing queries, built per filter combination: a null filter argument adds no predicate,
+ * so every variant is a plain range scan on idx_posts_published_at_post_id (see database.txt)
+ * rather than one catch-all statement the planner has to cost for every combination at once.
+ */
+public interface PostRepositoryCustom {
+
+	/**
+	 * Posts with a publish date, newest first: (published_at DESC, post_id DESC), starting after
+	 * (publishedAt, postId) when publishedAt is given.
+	 */
+	List<PostSummary> findPublishedPage(Short status, String category, Boolean featured, Long authorId,
+			OffsetDateTime publishedAt, Long postId, int limit);
+
+	/**
+	 * Posts without a publish date, which list after every published one: post_id DESC, starting
+	 * below postId when it is given.
+	 */
+	List<PostSummary> findUnpublishedPage(Short status, String category, Boolean featured, Long authorId,
+			Long postId, int limit);
+}
@@ -0,0 +1,74 @@
+package com.example.main.repository;
+
+import com.example.main.dto.PostSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<PostSummary> findPublishedPage(Short status, String category, Boolean featured, Long authorId,
+			OffsetDateTime publishedAt, Long postId, int limit) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder jpql = new StringBuilder(PostRepository.SUMMARY_SELECT).append(" WHERE p.publishedAt IS NOT NULL");
+		filters(jpql, params, status, category, featured, authorId);
+		if (publishedAt != null) {
+			// row-value comparison: one index range condition instead of an OR of two
+			jpql.append(" AND (p.publishedAt, p.postId) < (:publishedAt, :postId)");
+			params.put("publishedAt", publishedAt);
+			params.put("postId", postId);
+		}
+		// NULLS LAST only to match the index order; no NULL rows reach this query
+		jpql.append(" ORDER BY p.publishedAt DESC NULLS LAST, p.postId DESC");
+		return run(jpql, params, limit);
+	}
+
+	@Override
+	public List<PostSummary> findUnpublishedPage(Short status, String category, Boolean featured, Long authorId,
+			Long postId, int limit) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder jpql = new StringBuilder(PostRepository.SUMMARY_SELECT).append(" WHERE p.publishedAt IS NULL");
+		filters(jpql, params, status, category, featured, authorId);
+		if (postId != null) {
+			jpql.append(" AND p.postId < :postId");
+			params.put("postId", postId);
+		}
+		jpql.append(" ORDER BY p.postId DESC");
+		return run(jpql, params, limit);
+	}
+
+	private static void filters(StringBuilder jpql, Map<String, Object> params, Short status, String category,
+			Boolean featured, Long authorId) {
+		if (status != null) {
+			jpql.append(" AND p.status = :status");
+			params.put("status", status);
+		}
+		if (category != null) {
+			jpql.append(" AND p.category = :category");
+			params.put("category", category);
+		}
+		if (featured != null) {
+			jpql.append(" AND p.featured = :featured");
+			params.put("featured", featured);
+		}
+		if (authorId != null) {
+			jpql.append(" AND p.authorId = :authorId");
+			params.put("authorId", authorId);
+		}
+	}
+
+	private List<PostSummary> run(StringBuilder jpql, Map<String, Object> params, int limit) {
+		TypedQuery<PostSummary> query = entityManager.createQuery(jpql.toString(), PostSummary.class);
+		params.forEach(query::setParameter);
+		return query.setMaxResults(limit).getResultList();
+	}
+}
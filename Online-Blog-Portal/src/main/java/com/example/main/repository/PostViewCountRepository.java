@@ -0,0 +1,16 @@
+package com.example.main.repository;
+
+import com.example.main.entity.PostViewCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PostViewCountRepository extends JpaRepository<PostViewCount, Long> {
+
+	// [postId, views, updatedAt]; written by ViewCounterServiceImpl through JDBC
+	@Query("SELECT v.postId, v.views, v.updatedAt FROM PostViewCount v")
+	List<Object[]> findAllCounts();
+}
@@ -0,0 +1,265 @@
+package com.example.main.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie for typeahead. Edges carry whole label strings (single-child chains are merged), and
+ * every node caches the best {@link #MAX_K} entries of its subtree by weight, so a lookup is one
+ * walk down the prefix plus a copy of that cached list.
+ *
+ * The same {@link Entry} may be inserted under several keys (e.g. every word-start of a title);
+ * cached lists hold each entry at most once.
+ */
+public class CompletionTrie {
+
+	public static final int MAX_K = 10;
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+	private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingLong((Entry e) -> e.weight).reversed()
+			.thenComparing(e -> e.text);
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Node root = new Node("");
+
+	public static final class Entry {
+
+		private final String kind;
+		private final Long id;
+		private final String text;
+		private final long weight;
+
+		public Entry(String kind, Long id, String text, long weight) {
+			this.kind = kind;
+			this.id = id;
+			this.text = text;
+			this.weight = weight;
+		}
+
+		public String getKind() {
+			return kind;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public long getWeight() {
+			return weight;
+		}
+	}
+
+	private static final class Node {
+
+		String label;
+		Node[] children = NO_CHILDREN;
+		List<Entry> entries; // entries whose key ends exactly here, null when none
+		Entry[] top = NO_ENTRIES;
+
+		Node(String label) {
+			this.label = label;
+		}
+	}
+
+	public void insert(String key, Entry entry) {
+		lock.writeLock().lock();
+		try {
+			List<Node> path = new ArrayList<>();
+			Node node = root;
+			path.add(node);
+			int i = 0;
+			while (i < key.length()) {
+				int ci = childIndex(node, key.charAt(i));
+				if (ci < 0) {
+					Node leaf = new Node(key.substring(i));
+					addChild(node, leaf);
+					node = leaf;
+					path.add(node);
+					break;
+				}
+				Node child = node.children[ci];
+				int common = commonPrefix(child.label, key, i);
+				if (common < child.label.length()) {
+					// split the edge: node -> mid(common part) -> child(rest)
+					Node mid = new Node(child.label.substring(0, common));
+					child.label = child.label.substring(common);
+					mid.children = new Node[] { child };
+					node.children[ci] = mid;
+					child = mid;
+				}
+				node = child;
+				path.add(node);
+				i += common;
+			}
+
+			if (node.entries == null) {
+				node.entries = new ArrayList<>(1);
+			}
+			node.entries.add(entry);
+			for (int d = path.size() - 1; d >= 0; d--) {
+				recomputeTop(path.get(d));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean remove(String key, Entry entry) {
+		lock.writeLock().lock();
+		try {
+			List<Node> path = new ArrayList<>();
+			Node node = root;
+			path.add(node);
+			int i = 0;
+			while (i < key.length()) {
+				int ci = childIndex(node, key.charAt(i));
+				if (ci < 0) {
+					return false;
+				}
+				Node child = node.children[ci];
+				if (!key.startsWith(child.label, i)) {
+					return false;
+				}
+				node = child;
+				path.add(node);
+				i += child.label.length();
+			}
+			if (node.entries == null || !node.entries.removeIf(e -> e == entry)) {
+				return false;
+			}
+			if (node.entries.isEmpty()) {
+				node.entries = null;
+			}
+
+			// prune empty leaves and re-merge single-child chains, then fix cached lists upwards
+			for (int d = path.size() - 1; d >= 0; d--) {
+				Node n = path.get(d);
+				if (d > 0 && n.entries == null && n.children.length <= 1) {
+					Node parent = path.get(d - 1);
+					if (n.children.length == 0) {
+						removeChild(parent, n);
+					} else {
+						Node only = n.children[0];
+						only.label = n.label + only.label;
+						parent.children[childIndex(parent, n.label.charAt(0))] = only;
+					}
+					continue;
+				}
+				recomputeTop(n);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Best entries (highest weight first) whose key starts with {@code prefix}. */
+	public List<Entry> complete(String prefix, int k) {
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			int i = 0;
+			while (i < prefix.length()) {
+				int ci = childIndex(node, prefix.charAt(i));
+				if (ci < 0) {
+					return List.of();
+				}
+				Node child = node.children[ci];
+				int common = commonPrefix(child.label, prefix, i);
+				if (i + common == prefix.length()) {
+					node = child; // prefix ends on or inside this edge
+					break;
+				}
+				if (common < child.label.length()) {
+					return List.of();
+				}
+				node = child;
+				i += common;
+			}
+			Entry[] top = node.top;
+			return List.of(Arrays.copyOf(top, Math.min(k, top.length)));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static void recomputeTop(Node node) {
+		List<Entry> candidates = new ArrayList<>();
+		if (node.entries != null) {
+			candidates.addAll(node.entries);
+		}
+		for (Node child : node.children) {
+			candidates.addAll(Arrays.asList(child.top));
+		}
+		candidates.sort(BY_WEIGHT);
+
+		Map<Entry, Boolean> seen = new IdentityHashMap<>();
+		List<Entry> top = new ArrayList<>(MAX_K);
+		for (Entry e : candidates) {
+			if (seen.put(e, Boolean.TRUE) == null) {
+				top.add(e);
+				if (top.size() == MAX_K) {
+					break;
+				}
+			}
+		}
+		node.top = top.toArray(NO_ENTRIES);
+	}
+
+	private static int childIndex(Node node, char c) {
+		int lo = 0;
+		int hi = node.children.length - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			char m = node.children[mid].label.charAt(0);
+			if (m < c) {
+				lo = mid + 1;
+			} else if (m > c) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private static void addChild(Node parent, Node child) {
+		char c = child.label.charAt(0);
+		int at = 0;
+		while (at < parent.children.length && parent.children[at].label.charAt(0) < c) {
+			at++;
+		}
+		Node[] next = new Node[parent.children.length + 1];
+		System.arraycopy(parent.children, 0, next, 0, at);
+		next[at] = child;
+		System.arraycopy(parent.children, at, next, at + 1, parent.children.length - at);
+		parent.children = next;
+	}
+
+	private static void removeChild(Node parent, Node child) {
+		int at = childIndex(parent, child.label.charAt(0));
+		Node[] next = new Node[parent.children.length - 1];
+		System.arraycopy(parent.children, 0, next, 0, at);
+		System.arraycopy(parent.children, at + 1, next, at, next.length - at);
+		parent.children = next.length == 0 ? NO_CHILDREN : next;
+	}
+
+	private static int commonPrefix(String label, String key, int offset) {
+		int n = Math.min(label.length(), key.length() - offset);
+		int i = 0;
+		while (i < n && label.charAt(i) == key.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,480 @@
+package com.example.main.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post titles and bodies, ranked with BM25.
+ *
+ * Documents get a dense ordinal; postings are packed (ordinal, tf) int pairs appended in ordinal
+ * order. Updating a post tombstones its old ordinal and appends a new one, so writes never touch
+ * existing postings. Dead ordinals are skipped at query time and dropped by {@link #compact()} or
+ * when the index is written out as a segment file.
+ */
+public class InvertedIndex {
+
+	static final float K1 = 1.2f;
+	static final float B = 0.75f;
+	static final int TITLE_BOOST = 3;
+	static final int MAX_PREFIX_EXPANSION = 64;
+	static final int MIN_PREFIX_LENGTH = 2;
+
+	private static final int MAGIC = 0x42505349; // "BPSI"
+	private static final int FORMAT_VERSION = 1;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	// postings are rewritten in place only by compaction; holding this keeps a snapshot's arrays
+	// stable while it is written out without the read/write lock
+	private final ReentrantLock compactionLock = new ReentrantLock();
+	private final NavigableMap<String, Postings> terms = new TreeMap<>();
+	private final Map<Long, Integer> ordinals = new HashMap<>();
+
+	private long[] postIds = new long[64];
+	private int[] lengths = new int[64];
+	private int maxOrdinal;
+	private int liveDocs;
+	private long totalLength;
+
+	public static class Hit {
+
+		private final long postId;
+		private final float score;
+
+		Hit(long postId, float score) {
+			this.postId = postId;
+			this.score = score;
+		}
+
+		public long getPostId() {
+			return postId;
+		}
+
+		public float getScore() {
+			return score;
+		}
+	}
+
+	public static class Result {
+
+		private final int total;
+		private final List<Hit> hits;
+
+		Result(int total, List<Hit> hits) {
+			this.total = total;
+			this.hits = hits;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+
+		public List<Hit> getHits() {
+			return hits;
+		}
+	}
+
+	static final class Postings {
+
+		int[] data = new int[4];
+		int size; // ints used, two per document
+
+		void add(int ordinal, int tf) {
+			if (size + 2 > data.length) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			data[size++] = ordinal;
+			data[size++] = tf;
+		}
+	}
+
+	/** Indexes or re-indexes a post. */
+	public void put(long postId, String title, String content) {
+		Map<String, int[]> freqs = new HashMap<>();
+		int length = 0;
+		for (String t : TextAnalyzer.analyze(title)) {
+			freqs.computeIfAbsent(t, k -> new int[1])[0] += TITLE_BOOST;
+			length += TITLE_BOOST;
+		}
+		for (String t : TextAnalyzer.analyze(content)) {
+			freqs.computeIfAbsent(t, k -> new int[1])[0]++;
+			length++;
+		}
+
+		lock.writeLock().lock();
+		try {
+			removeLocked(postId);
+			int ordinal = allocate(postId, length);
+			for (Map.Entry<String, int[]> e : freqs.entrySet()) {
+				terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(ordinal, e.getValue()[0]);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean remove(long postId) {
+		lock.writeLock().lock();
+		try {
+			return removeLocked(postId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean contains(long postId) {
+		lock.readLock().lock();
+		try {
+			return ordinals.containsKey(postId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return liveDocs;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public long[] postIds() {
+		lock.readLock().lock();
+		try {
+			long[] ids = new long[liveDocs];
+			int i = 0;
+			for (Long id : ordinals.keySet()) {
+				ids[i++] = id;
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Fraction of allocated ordinals that are tombstoned. */
+	public double garbageRatio() {
+		lock.readLock().lock();
+		try {
+			return maxOrdinal == 0 ? 0 : (maxOrdinal - liveDocs) / (double) maxOrdinal;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Scores every live document matching any query term (OR semantics). Unless the query ends in
+	 * whitespace, its last term is also matched as a prefix so search-as-you-type works. Hits are
+	 * ordered by (score DESC, postId DESC); pass the last hit of a page as {@code afterScore} /
+	 * {@code afterId} to get the next one, or a null {@code afterScore} for the first page.
+	 */
+	public Result search(String query, Float afterScore, long afterId, int limit) {
+		List<String> tokens = TextAnalyzer.analyze(query);
+		if (tokens.isEmpty()) {
+			return new Result(0, List.of());
+		}
+		boolean lastIsPrefix = TextAnalyzer.lastTermIsPrefix(query);
+
+		lock.readLock().lock();
+		try {
+			if (liveDocs == 0) {
+				return new Result(0, List.of());
+			}
+			float[] scores = new float[maxOrdinal];
+			float avgLength = Math.max(1f, totalLength / (float) liveDocs);
+
+			for (int i = 0; i < tokens.size(); i++) {
+				String token = tokens.get(i);
+				boolean prefix = (i == tokens.size() - 1 && lastIsPrefix) && token.length() >= MIN_PREFIX_LENGTH;
+				if (prefix) {
+					int expanded = 0;
+					NavigableMap<String, Postings> completions = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+					for (Map.Entry<String, Postings> e : completions.entrySet()) {
+						// exact matches score fully, completions are discounted
+						accumulate(scores, e.getValue(), avgLength, e.getKey().equals(token) ? 1f : 0.8f);
+						if (++expanded >= MAX_PREFIX_EXPANSION) {
+							break;
+						}
+					}
+				} else {
+					Postings p = terms.get(token);
+					if (p != null) {
+						accumulate(scores, p, avgLength, 1f);
+					}
+				}
+			}
+
+			// min-heap of the best `limit` hits after the cursor
+			Comparator<Hit> order = (a, b) -> a.score != b.score ? Float.compare(b.score, a.score)
+					: Long.compare(b.postId, a.postId);
+			PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, order.reversed());
+			int total = 0;
+			for (int ord = 0; ord < maxOrdinal; ord++) {
+				float s = scores[ord];
+				if (s <= 0) {
+					continue;
+				}
+				total++;
+				long postId = postIds[ord];
+				if (afterScore != null && (s > afterScore || (s == afterScore && postId >= afterId))) {
+					continue;
+				}
+				Hit hit = new Hit(postId, s);
+				if (top.size() < limit) {
+					top.add(hit);
+				} else if (order.compare(hit, top.peek()) < 0) {
+					top.poll();
+					top.add(hit);
+				}
+			}
+
+			List<Hit> ranked = new ArrayList<>(top);
+			ranked.sort(order);
+			return new Result(total, ranked);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void accumulate(float[] scores, Postings p, float avgLength, float weight) {
+		int df = 0;
+		for (int i = 0; i < p.size; i += 2) {
+			if (lengths[p.data[i]] >= 0) {
+				df++;
+			}
+		}
+		if (df == 0) {
+			return;
+		}
+		float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+		for (int i = 0; i < p.size; i += 2) {
+			int ord = p.data[i];
+			int len = lengths[ord];
+			if (len < 0) {
+				continue;
+			}
+			int tf = p.data[i + 1];
+			float norm = K1 * (1 - B + B * len / avgLength);
+			scores[ord] += weight * idf * (tf * (K1 + 1)) / (tf + norm);
+		}
+	}
+
+	/** Drops tombstoned ordinals and renumbers the rest. */
+	public void compact() {
+		compactionLock.lock();
+		try {
+			lock.writeLock().lock();
+			try {
+				compactLocked();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * Writes a compacted segment: doc table, then the sorted term dictionary with delta/varint
+	 * encoded postings. Written to a temp file and atomically moved over {@code target}.
+	 *
+	 * Only compaction and taking the snapshot hold the write lock; the file is written from the
+	 * snapshot while searches and updates carry on. Updates after the snapshot only append
+	 * ordinals past it or tombstone the live length table, so the captured postings prefixes stay
+	 * valid until the next compaction, which waits for this write.
+	 */
+	public void writeTo(Path target) throws IOException {
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		compactionLock.lock();
+		try {
+			int docs;
+			long[] ids;
+			int[] lens;
+			String[] termNames;
+			int[][] termData;
+			int[] termSizes;
+			lock.writeLock().lock();
+			try {
+				compactLocked();
+				docs = maxOrdinal;
+				ids = Arrays.copyOf(postIds, docs);
+				lens = Arrays.copyOf(lengths, docs);
+				termNames = new String[terms.size()];
+				termData = new int[terms.size()][];
+				termSizes = new int[terms.size()];
+				int t = 0;
+				for (Map.Entry<String, Postings> e : terms.entrySet()) {
+					termNames[t] = e.getKey();
+					termData[t] = e.getValue().data;
+					termSizes[t] = e.getValue().size;
+					t++;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(docs);
+				for (int ord = 0; ord < docs; ord++) {
+					out.writeLong(ids[ord]);
+					writeVarInt(out, lens[ord]);
+				}
+				out.writeInt(termNames.length);
+				for (int t = 0; t < termNames.length; t++) {
+					int[] data = termData[t];
+					out.writeUTF(termNames[t]);
+					writeVarInt(out, termSizes[t] / 2);
+					int prev = 0;
+					for (int i = 0; i < termSizes[t]; i += 2) {
+						writeVarInt(out, data[i] - prev);
+						writeVarInt(out, data[i + 1]);
+						prev = data[i];
+					}
+				}
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	public static InvertedIndex readFrom(Path source) throws IOException {
+		try (InputStream in = Files.newInputStream(source)) {
+			return readFrom(in);
+		}
+	}
+
+	static InvertedIndex readFrom(InputStream raw) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16));
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Not a search segment or unsupported version");
+		}
+		InvertedIndex index = new InvertedIndex();
+		int docs = in.readInt();
+		for (int ord = 0; ord < docs; ord++) {
+			long postId = in.readLong();
+			index.allocate(postId, readVarInt(in));
+		}
+		int termCount = in.readInt();
+		for (int t = 0; t < termCount; t++) {
+			String term = in.readUTF();
+			int n = readVarInt(in);
+			Postings p = new Postings();
+			p.data = new int[Math.max(2, n * 2)];
+			int ord = 0;
+			for (int i = 0; i < n; i++) {
+				ord += readVarInt(in);
+				int tf = readVarInt(in);
+				if (ord >= docs) {
+					throw new IOException("Corrupt search segment");
+				}
+				p.add(ord, tf);
+			}
+			index.terms.put(term, p);
+		}
+		return index;
+	}
+
+	private int allocate(long postId, int length) {
+		if (maxOrdinal == postIds.length) {
+			postIds = Arrays.copyOf(postIds, maxOrdinal * 2);
+			lengths = Arrays.copyOf(lengths, maxOrdinal * 2);
+		}
+		int ordinal = maxOrdinal++;
+		postIds[ordinal] = postId;
+		lengths[ordinal] = length;
+		ordinals.put(postId, ordinal);
+		liveDocs++;
+		totalLength += length;
+		return ordinal;
+	}
+
+	private boolean removeLocked(long postId) {
+		Integer ordinal = ordinals.remove(postId);
+		if (ordinal == null) {
+			return false;
+		}
+		totalLength -= lengths[ordinal];
+		lengths[ordinal] = -1;
+		liveDocs--;
+		return true;
+	}
+
+	private void compactLocked() {
+		if (liveDocs == maxOrdinal) {
+			return;
+		}
+		int[] remap = new int[maxOrdinal];
+		int next = 0;
+		for (int ord = 0; ord < maxOrdinal; ord++) {
+			if (lengths[ord] >= 0) {
+				remap[ord] = next;
+				postIds[next] = postIds[ord];
+				lengths[next] = lengths[ord];
+				ordinals.put(postIds[next], next);
+				next++;
+			} else {
+				remap[ord] = -1;
+			}
+		}
+		maxOrdinal = next;
+
+		var it = terms.values().iterator();
+		while (it.hasNext()) {
+			Postings p = it.next();
+			int w = 0;
+			for (int i = 0; i < p.size; i += 2) {
+				int mapped = remap[p.data[i]];
+				if (mapped >= 0) {
+					p.data[w++] = mapped;
+					p.data[w++] = p.data[i + 1];
+				}
+			}
+			p.size = w;
+			if (w == 0) {
+				it.remove();
+			}
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.main.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns post text into index terms: strips markup, lower-cases, folds diacritics (so "Việt Nam",
+ * "viet nam" and "VIET NAM" match) and splits on anything that is not a letter or digit.
+ */
+public final class TextAnalyzer {
+
+	static final int MAX_TOKEN_LENGTH = 40;
+
+	private static final Pattern TAGS = Pattern.compile("<[^>]*>|&[a-zA-Z]+;|&#\\d+;");
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private TextAnalyzer() {
+	}
+
+	public static List<String> analyze(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+
+		String folded = fold(TAGS.matcher(text).replaceAll(" "));
+		int start = -1;
+		for (int i = 0; i <= folded.length(); i++) {
+			boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				if (i - start <= MAX_TOKEN_LENGTH) {
+					tokens.add(folded.substring(start, i));
+				}
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/** Search-as-you-type: the last term is still being typed unless the query ends in whitespace. */
+	public static boolean lastTermIsPrefix(String query) {
+		return !query.isEmpty() && !Character.isWhitespace(query.charAt(query.length() - 1));
+	}
+
+	public static String fold(String text) {
+		// đ/Đ is a distinct letter, not d + combining mark, so NFD alone does not fold it
+		String s = text.replace('đ', 'd').replace('Đ', 'd');
+		s = Normalizer.normalize(s, Normalizer.Form.NFD);
+		return MARKS.matcher(s).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+}
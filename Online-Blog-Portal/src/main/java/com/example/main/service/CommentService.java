@@ -1,7 +1,11 @@
 package com.example.main.service;
 
+import com.example.main.dto.CommentNode;
 import com.example.main.dto.CommentRequest;
 import com.example.main.dto.CommentResponse;
+import com.example.main.dto.CommentTreeResponse;
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.ResourceVersion;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +15,14 @@ public interface CommentService {
 
 	List<CommentResponse> getCommentsByPost(Long postId);
 
+	CommentTreeResponse getCommentTree(Long postId, String cursor, Integer maxDepth, Integer limit, Integer replyLimit);
+
+	CursorPage<CommentNode> getTopLevelComments(Long postId, String cursor, Integer limit);
+
+	CursorPage<CommentNode> getReplies(Long parentId, String cursor, Integer limit);
+
+	Optional<ResourceVersion> getCommentsVersion(Long postId);
+
 	Optional<CommentResponse> getCommentById(Long id);
 
 	void deleteComment(Long id);
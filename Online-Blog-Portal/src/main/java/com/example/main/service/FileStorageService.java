@@ -1,9 +1,33 @@
 package com.example.main.service;
 
+import com.example.main.dto.StoredFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface FileStorageService {
-    String saveFile(MultipartFile file) throws IOException;
+
+    StoredFile store(InputStream in, String originalFilename) throws IOException;
+
+    // Returns null for a missing or empty file
+    default StoredFile store(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getOriginalFilename());
+        }
+    }
+
+    default String saveFile(MultipartFile file) throws IOException {
+        StoredFile stored = store(file);
+        return stored != null ? stored.getUrl() : null;
+    }
+
+    // Opens a file previously returned by store(), by its public URL
+    InputStream open(String url) throws IOException;
+
+    // Called once a post no longer references the file; implementations may delete it
+    void release(String url);
 }
@@ -0,0 +1,9 @@
+package com.example.main.service;
+
+import com.example.main.entity.PostImage;
+
+public interface ImageVariantService {
+
+	// Queues thumbnail + responsive-width generation for an already saved image
+	void generateAsync(PostImage image);
+}
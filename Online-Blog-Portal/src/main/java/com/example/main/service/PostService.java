@@ -1,6 +1,11 @@
 package com.example.main.service;
 
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.PostDetail;
+import com.example.main.dto.PostViews;
 import com.example.main.dto.PostRequest;
+import com.example.main.dto.PostSummary;
+import com.example.main.dto.ResourceVersion;
 import com.example.main.entity.Post;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -12,10 +17,22 @@ public interface PostService {
 
     Post createPost(PostRequest request, List<MultipartFile> files) throws IOException;
 
-    List<Post> getAllPosts();
+    CursorPage<PostSummary> getPosts(String cursor, Integer limit, Short status, String category, Boolean featured,
+            Long authorId);
 
     Optional<Post> getPostById(Long id);
 
+    Optional<ResourceVersion> getPostVersion(Long id);
+
+    /**
+     * Detail view of a post at {@code version} (as returned by {@link #getPostVersion}); served
+     * from the near-cache when the cached copy is at that version.
+     */
+    Optional<PostDetail> getPostDetail(Long id, Long version);
+
+    /** Live view count: flushed total plus this instance's pending views; empty if no such post. */
+    Optional<PostViews> getPostViews(Long id);
+
     Post updatePost(Long id, Post updatedPost);
 
     void deletePost(Long id);
@@ -0,0 +1,12 @@
+package com.example.main.service;
+
+import com.example.main.dto.SearchResponse;
+
+/**
+ * Ranked full-text search over published posts. {@code search.mode} selects the engine:
+ * "memory" (in-process index) or "postgres" (tsvector column + GIN index).
+ */
+public interface SearchService {
+
+	SearchResponse search(String query, String cursor, Integer limit);
+}
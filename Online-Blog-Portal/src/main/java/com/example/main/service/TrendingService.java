@@ -0,0 +1,11 @@
+package com.example.main.service;
+
+import com.example.main.dto.PostSummary;
+
+import java.util.List;
+
+public interface TrendingService {
+
+	/** Hottest published posts, optionally within one category. */
+	List<PostSummary> getTrending(String category, Integer limit);
+}
@@ -0,0 +1,10 @@
+package com.example.main.service;
+
+import com.example.main.dto.Suggestion;
+
+import java.util.List;
+
+public interface TypeaheadService {
+
+	List<Suggestion> suggest(String prefix, Integer limit);
+}
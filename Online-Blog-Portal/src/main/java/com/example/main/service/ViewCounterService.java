@@ -0,0 +1,9 @@
+package com.example.main.service;
+
+public interface ViewCounterService {
+
+	void recordView(Long postId);
+
+	/** Live count: the flushed total (e.g. {@code Post.getStoredViews()}) plus views not yet flushed. */
+	long currentCount(Long postId, Long storedViews);
+}
@@ -1,18 +1,38 @@
 package com.example.main.service.impl;
 
+import com.example.main.dto.CommentNode;
 import com.example.main.dto.CommentRequest;
 import com.example.main.dto.CommentResponse;
+import com.example.main.dto.CommentTreeResponse;
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.KeysetCursor;
+import com.example.main.dto.ResourceVersion;
 import com.example.main.entity.Comment;
 import com.example.main.entity.Post;
 import com.example.main.entity.User;
+import com.example.main.event.CommentAddedEvent;
 import com.example.main.repository.CommentRepository;
 import com.example.main.repository.PostRepository;
 import com.example.main.repository.UserRepository;
 import com.example.main.service.CommentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,8 +41,23 @@ public class CommentServiceImpl implements CommentService {
     @Autowired private CommentRepository commentRepository;
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private static final int DEFAULT_TREE_DEPTH = 8;
+    private static final int MAX_TREE_DEPTH = 50;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_REPLY_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int RECONCILE_BATCH = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(CommentServiceImpl.class);
+
+    @Value("${comments.flat-max:500}")
+    private int flatMax;
 
     @Override
+    @Transactional
     public CommentResponse createComment(CommentRequest req) {
 
         Post post = postRepository.findById(req.getPostId())
@@ -43,46 +78,164 @@ public class CommentServiceImpl implements CommentService {
         }
 
         Comment saved = commentRepository.save(comment);
+        postRepository.applyCommentChange(post.getPostId(), 1, OffsetDateTime.now());
+        eventPublisher.publishEvent(new CommentAddedEvent(post.getPostId(), saved.getCreatedAt()));
 
         return new CommentResponse(
                 saved.getCommentId(),
-                saved.getPost().getPostId(),
-                saved.getAuthor().getUserId(),
+                post.getPostId(),
+                user.getUserId(),
                 saved.getParent() != null ? saved.getParent().getCommentId() : null,
                 saved.getContent(),
-                saved.getCreatedAt()
+                saved.getCreatedAt(),
+                user.getUsername(),
+                user.getDisplayName()
         );
     }
 
     @Override
     public List<CommentResponse> getCommentsByPost(Long postId) {
-        return commentRepository.findByPost_PostId(postId)
-                .stream()
-                .map(c -> new CommentResponse(
-                        c.getCommentId(),
-                        c.getPost().getPostId(),
-                        c.getAuthor().getUserId(),
-                        c.getParent() != null ? c.getParent().getCommentId() : null,
-                        c.getContent(),
-                        c.getCreatedAt()
-                )).toList();
+        // legacy flat list, kept bounded; paging clients use getTopLevelComments / getReplies
+        return commentRepository.findRowsByPostId(postId, PageRequest.of(0, flatMax));
+    }
+
+    @Override
+    public CommentTreeResponse getCommentTree(Long postId, String cursor, Integer maxDepth, Integer limit,
+                                              Integer replyLimit) {
+        int depth = clamp(maxDepth, DEFAULT_TREE_DEPTH, MAX_TREE_DEPTH);
+        int size = clamp(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        int replies = clamp(replyLimit, DEFAULT_REPLY_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        // a page of roots by keyset, then one recursive query for their threads down to the depth
+        // limit; the rest of the post is never read
+        List<CommentResponse> page = topLevelRows(postId, cursor, size);
+        List<CommentResponse> roots = page.size() > size ? page.subList(0, size) : page;
+        if (roots.isEmpty()) {
+            return new CommentTreeResponse(postId, List.of(), null);
+        }
+
+        List<Object[]> thread = commentRepository.findThreadRows(roots.stream().map(CommentResponse::getId).toList(),
+                depth);
+        List<CommentResponse> rows = new ArrayList<>(thread.size());
+        int[] replyCounts = new int[thread.size()];
+        for (int i = 0; i < thread.size(); i++) {
+            Object[] r = thread.get(i);
+            rows.add(new CommentResponse((Long) r[0], (Long) r[1], (Long) r[2], (Long) r[3], (String) r[4],
+                    (OffsetDateTime) r[5], (String) r[6], (String) r[7]));
+            replyCounts[i] = ((Number) r[8]).intValue();
+        }
+
+        return new CommentTreeResponse(postId, CommentTreeBuilder.build(rows, replyCounts, depth, replies),
+                nextCursor(page, size));
+    }
+
+    @Override
+    public CursorPage<CommentNode> getTopLevelComments(Long postId, String cursor, Integer limit) {
+        int size = clamp(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        return toPage(topLevelRows(postId, cursor, size), size);
+    }
+
+    // up to size + 1 top-level rows after the cursor; the extra one only signals that another page exists
+    private List<CommentResponse> topLevelRows(Long postId, String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return commentRepository.findTopLevelPage(postId, pageable);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return commentRepository.findTopLevelPageAfter(postId, after.getTimestamp(), after.getId(), pageable);
+    }
+
+    @Override
+    public CursorPage<CommentNode> getReplies(Long parentId, String cursor, Integer limit) {
+        int size = clamp(limit, DEFAULT_REPLY_PAGE_SIZE, MAX_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        List<CommentResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findReplyPage(parentId, pageable);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = commentRepository.findReplyPageAfter(parentId, after.getTimestamp(), after.getId(), pageable);
+        }
+        return toPage(rows, size);
+    }
+
+    // rows holds up to size + 1 entries; the extra one only signals that another page exists
+    private CursorPage<CommentNode> toPage(List<CommentResponse> rows, int size) {
+        List<CommentResponse> items = rows.size() > size ? rows.subList(0, size) : rows;
+
+        // one grouped query tells the client which comments have replies to load
+        Map<Long, Integer> replyCounts = new HashMap<>();
+        if (!items.isEmpty()) {
+            for (Object[] r : commentRepository.countReplies(items.stream().map(CommentResponse::getId).toList())) {
+                replyCounts.put((Long) r[0], ((Number) r[1]).intValue());
+            }
+        }
+
+        List<CommentNode> nodes = items.stream()
+                .map(c -> new CommentNode(c, replyCounts.getOrDefault(c.getId(), 0), List.of()))
+                .toList();
+
+        return new CursorPage<>(nodes, nextCursor(rows, size));
+    }
+
+    private static String nextCursor(List<CommentResponse> rows, int size) {
+        if (rows.size() <= size) {
+            return null;
+        }
+        CommentResponse last = rows.get(size - 1);
+        return new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+    }
+
+    @Override
+    public Optional<ResourceVersion> getCommentsVersion(Long postId) {
+        return postRepository.findCommentVersion(postId);
     }
 
     @Override
     public Optional<CommentResponse> getCommentById(Long id) {
-        return commentRepository.findById(id)
-                .map(c -> new CommentResponse(
-                        c.getCommentId(),
-                        c.getPost().getPostId(),
-                        c.getAuthor().getUserId(),
-                        c.getParent() != null ? c.getParent().getCommentId() : null,
-                        c.getContent(),
-                        c.getCreatedAt()
-                ));
+        return commentRepository.findRowById(id);
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(c -> {
+            Long postId = c.getPost().getPostId();
+            commentRepository.delete(c);
+            postRepository.applyCommentChange(postId, -1, OffsetDateTime.now());
+        });
+    }
+
+    // comment_count is kept in step by createComment/deleteComment; this catches anything that
+    // bypassed them (manual SQL, cascades) and backfills the column after it is first added
+    @Scheduled(fixedDelayString = "${comments.reconcile-interval-ms:21600000}",
+            initialDelayString = "${comments.reconcile-initial-delay-ms:30000}")
+    public void reconcileCommentCounts() {
+        Long maxId = postRepository.findMaxPostId();
+        if (maxId == null) {
+            return;
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int repaired = 0;
+        for (long from = 1; from <= maxId; from += RECONCILE_BATCH) {
+            long lo = from;
+            long hi = from + RECONCILE_BATCH - 1;
+            // Lock first, count in a second statement. Under READ COMMITTED an UPDATE that waits
+            // on a row lock re-checks only that row; its COUNT subquery keeps the snapshot taken
+            // before the wait, so it would overwrite a concurrent comment's +1 with a stale count.
+            // The recount starts after the locks are held and sees every committed comment.
+            repaired += tx.execute(status -> {
+                postRepository.lockRange(lo, hi);
+                return postRepository.reconcileCommentCounts(lo, hi);
+            });
+        }
+        if (repaired > 0) {
+            log.info("Repaired comment_count on {} posts", repaired);
+        }
+    }
+
+    private static int clamp(Integer value, int def, int max) {
+        return (value == null || value <= 0) ? def : Math.min(value, max);
     }
 }
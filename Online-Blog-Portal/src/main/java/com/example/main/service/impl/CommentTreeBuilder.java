@@ -0,0 +1,116 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.CommentNode;
+import com.example.main.dto.CommentResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assembles a creation-ordered page of threads (roots plus the replies fetched for them) in O(n).
+ * Children are linked through int arrays (head / tail / next sibling) indexed by row position,
+ * with a primitive id -> row map, so no per-node collections are created for the parts of the
+ * tree that fall outside the requested depth and reply limits.
+ */
+final class CommentTreeBuilder {
+
+	private CommentTreeBuilder() {
+	}
+
+	/**
+	 * @param replyCounts direct reply count of each row, from the database: rows at the depth
+	 *                    limit still report replies that were not fetched
+	 */
+	static List<CommentNode> build(List<CommentResponse> rows, int[] replyCounts, int maxDepth, int replyLimit) {
+		int n = rows.size();
+		LongIntMap index = new LongIntMap(n);
+		for (int i = 0; i < n; i++) {
+			index.put(rows.get(i).getId(), i);
+		}
+
+		int[] head = new int[n];
+		int[] tail = new int[n];
+		int[] next = new int[n];
+		Arrays.fill(head, -1);
+		Arrays.fill(next, -1);
+
+		List<Integer> rootRows = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			Long parentId = rows.get(i).getParentId();
+			int parent = parentId != null ? index.get(parentId) : -1;
+
+			// a reply whose parent is missing is shown at top level rather than dropped
+			if (parent < 0 || parent == i) {
+				rootRows.add(i);
+			} else {
+				if (head[parent] < 0) {
+					head[parent] = i;
+				} else {
+					next[tail[parent]] = i;
+				}
+				tail[parent] = i;
+			}
+		}
+
+		List<CommentNode> roots = new ArrayList<>(rootRows.size());
+		for (int i : rootRows) {
+			roots.add(node(rows, i, 1, maxDepth, replyLimit, head, next, replyCounts));
+		}
+		return roots;
+	}
+
+	private static CommentNode node(List<CommentResponse> rows, int i, int depth, int maxDepth, int replyLimit,
+			int[] head, int[] next, int[] replyCounts) {
+		List<CommentNode> replies = List.of();
+		if (depth < maxDepth && head[i] >= 0) {
+			replies = new ArrayList<>(Math.min(replyCounts[i], replyLimit));
+			for (int c = head[i]; c >= 0 && replies.size() < replyLimit; c = next[c]) {
+				replies.add(node(rows, c, depth + 1, maxDepth, replyLimit, head, next, replyCounts));
+			}
+		}
+		return new CommentNode(rows.get(i), replyCounts[i], replies);
+	}
+
+	/**
+	 * Open-addressing long -> int map with linear probing. Comment ids are identity values >= 1,
+	 * so 0 marks an empty slot.
+	 */
+	static final class LongIntMap {
+		private final long[] keys;
+		private final int[] values;
+		private final int mask;
+
+		LongIntMap(int expected) {
+			int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+			keys = new long[cap];
+			values = new int[cap];
+			mask = cap - 1;
+		}
+
+		void put(long key, int value) {
+			int slot = slot(key);
+			while (keys[slot] != 0 && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			values[slot] = value;
+		}
+
+		int get(long key) {
+			int slot = slot(key);
+			while (keys[slot] != 0) {
+				if (keys[slot] == key) {
+					return values[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		private int slot(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32)) & mask;
+		}
+	}
+}
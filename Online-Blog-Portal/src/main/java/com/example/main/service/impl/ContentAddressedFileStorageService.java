@@ -0,0 +1,231 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.repository.PostImageRepository;
+import com.example.main.repository.PostImageVariantRepository;
+import com.example.main.service.FileStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Stores each distinct upload once, named by its SHA-256 under uploads/cas/ab/cd/. A blob is
+ * referenced by every {@code post_images} / {@code post_image_variants} row carrying its URL;
+ * blobs with no rows left are removed when a post releases them, or by the periodic sweep.
+ *
+ * Storing a duplicate refreshes the blob's mtime, which restarts its grace period. Store and
+ * delete take the same per-blob lock and deletes re-check the mtime under it, so a release or
+ * sweep that found no references cannot remove a blob a concurrent upload has just reused.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.mode", havingValue = "cas")
+public class ContentAddressedFileStorageService implements FileStorageService {
+
+	private static final Logger log = LoggerFactory.getLogger(ContentAddressedFileStorageService.class);
+
+	private static final String UPLOAD_DIR = "uploads/";
+	private static final String CAS_DIR = "cas/";
+	private static final int SWEEP_BATCH = 500;
+	// blobs younger than this may belong to a post that is still being saved
+	private static final Duration GRACE_PERIOD = Duration.ofMinutes(10);
+	private static final int LOCK_STRIPES = 64;
+
+	@Autowired
+	private PostImageRepository postImageRepository;
+
+	@Autowired
+	private PostImageVariantRepository variantRepository;
+
+	private final Path root;
+	private final ReentrantLock[] blobLocks = new ReentrantLock[LOCK_STRIPES];
+
+	public ContentAddressedFileStorageService() {
+		this(Paths.get(UPLOAD_DIR));
+	}
+
+	ContentAddressedFileStorageService(Path root) {
+		this.root = root.normalize();
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			blobLocks[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public StoredFile store(InputStream in, String originalFilename) throws IOException {
+		Files.createDirectories(root);
+		Path tmp = Files.createTempFile(root, "upload-", ".part");
+		try {
+			LocalFileStorageService.Written written = LocalFileStorageService.streamToFile(in, tmp);
+			String relative = blobPath(written.sha256, extension(originalFilename));
+			Path target = root.resolve(relative);
+
+			ReentrantLock lock = lockFor(target);
+			lock.lock();
+			try {
+				if (Files.exists(target)) {
+					// duplicate: keep the existing blob and refresh its age so deletes leave it alone
+					Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+				} else {
+					Files.createDirectories(target.getParent());
+					try {
+						Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+					} catch (FileAlreadyExistsException e) {
+						// same content stored concurrently by another instance
+					}
+				}
+			} finally {
+				lock.unlock();
+			}
+			return new StoredFile("/uploads/" + relative, written.sha256, written.size);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	@Override
+	public InputStream open(String url) throws IOException {
+		Path blob = toPath(url);
+		if (blob == null) {
+			throw new IOException("Not a stored blob: " + url);
+		}
+		return Files.newInputStream(blob);
+	}
+
+	@Override
+	public void release(String url) {
+		Path blob = toPath(url);
+		if (blob == null) {
+			return;
+		}
+		try {
+			if (postImageRepository.countByImageUrl(url) == 0 && variantRepository.countByImageUrl(url) == 0) {
+				deleteIfPastGrace(blob);
+			}
+		} catch (IOException e) {
+			log.warn("Could not release {}", url, e);
+		}
+	}
+
+	// Removes blobs that no post_images row points at any more
+	@Scheduled(fixedDelayString = "${storage.cas.sweep-interval-ms:3600000}", initialDelay = 60000)
+	public void sweepOrphans() {
+		Path casRoot = root.resolve(CAS_DIR);
+		if (!Files.isDirectory(casRoot)) {
+			return;
+		}
+
+		int removed = 0;
+		try (Stream<Path> files = Files.walk(casRoot)) {
+			List<Path> batch = new ArrayList<>(SWEEP_BATCH);
+			for (Path p : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				batch.add(p);
+				if (batch.size() == SWEEP_BATCH) {
+					removed += sweepBatch(batch);
+					batch.clear();
+				}
+			}
+			removed += sweepBatch(batch);
+		} catch (IOException e) {
+			log.warn("Orphan sweep failed", e);
+		}
+
+		if (removed > 0) {
+			log.info("Orphan sweep removed {} blobs", removed);
+		}
+	}
+
+	private int sweepBatch(List<Path> batch) throws IOException {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+
+		List<String> urls = new ArrayList<>(batch.size());
+		for (Path p : batch) {
+			urls.add(toUrl(p));
+		}
+		Set<String> referenced = new HashSet<>(postImageRepository.findReferencedUrls(urls));
+		referenced.addAll(variantRepository.findReferencedUrls(urls));
+
+		int removed = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			Path p = batch.get(i);
+			if (!referenced.contains(urls.get(i)) && deleteIfPastGrace(p)) {
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	// the mtime check and the delete happen under the lock store() takes to reuse the blob
+	private boolean deleteIfPastGrace(Path blob) throws IOException {
+		ReentrantLock lock = lockFor(blob);
+		lock.lock();
+		try {
+			return isPastGrace(blob) && Files.deleteIfExists(blob);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ReentrantLock lockFor(Path blob) {
+		return blobLocks[Math.floorMod(blob.getFileName().toString().hashCode(), LOCK_STRIPES)];
+	}
+
+	private boolean isPastGrace(Path blob) throws IOException {
+		if (!Files.exists(blob)) {
+			return false;
+		}
+		Instant modified = Files.getLastModifiedTime(blob).toInstant();
+		return modified.plus(GRACE_PERIOD).isBefore(Instant.now());
+	}
+
+	private Path toPath(String url) {
+		if (url == null || !url.startsWith("/uploads/" + CAS_DIR)) {
+			return null;
+		}
+		Path blob = root.resolve(url.substring("/uploads/".length())).normalize();
+		return blob.startsWith(root.resolve(CAS_DIR)) ? blob : null;
+	}
+
+	private String toUrl(Path blob) {
+		return "/uploads/" + root.relativize(blob).toString().replace('\\', '/');
+	}
+
+	// uploads/cas/ab/cd/abcd....ext : two levels of 256 directories keep each one small
+	static String blobPath(String sha256, String ext) {
+		return CAS_DIR + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ext;
+	}
+
+	static String extension(String originalFilename) {
+		if (originalFilename == null) {
+			return "";
+		}
+		int dot = originalFilename.lastIndexOf('.');
+		if (dot < 0) {
+			return "";
+		}
+		String ext = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+		return ext.matches("[a-z0-9]{1,8}") ? "." + ext : "";
+	}
+}
@@ -0,0 +1,210 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.entity.PostImage;
+import com.example.main.entity.PostImageVariant;
+import com.example.main.repository.PostImageRepository;
+import com.example.main.repository.PostImageVariantRepository;
+import com.example.main.repository.PostRepository;
+import com.example.main.service.FileStorageService;
+import com.example.main.service.ImageVariantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+	private static final Logger log = LoggerFactory.getLogger(ImageVariantServiceImpl.class);
+
+	static final int THUMB_WIDTH = 400;
+	static final int THUMB_HEIGHT = 250;
+	static final int[] WIDTHS = { 480, 960, 1600 };
+	// refuse to decode anything larger (~ 160 MB of ARGB pixels)
+	private static final long MAX_PIXELS = 40_000_000L;
+	private static final float JPEG_QUALITY = 0.82f;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private PostImageRepository postImageRepository;
+
+	@Autowired
+	private PostImageVariantRepository variantRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private PostDetailCache postDetailCache;
+
+	@Autowired
+	@Qualifier("imageProcessingExecutor")
+	private ExecutorService executor;
+
+	@Override
+	public void generateAsync(PostImage image) {
+		// capture plain values, the entity must not cross threads
+		Long imageId = image.getId();
+		Long postId = image.getPost().getPostId();
+		String url = image.getImageUrl();
+
+		executor.execute(() -> {
+			try {
+				generate(imageId, postId, url);
+			} catch (Exception e) {
+				log.warn("Variant generation failed for {}", url, e);
+			}
+		});
+	}
+
+	void generate(Long imageId, Long postId, String url) throws IOException {
+		BufferedImage src = read(url);
+		if (src == null) {
+			return; // not a format ImageIO can decode, keep serving the original
+		}
+
+		boolean alpha = src.getColorModel().hasAlpha();
+		PostImage ref = postImageRepository.getReferenceById(imageId);
+		List<PostImageVariant> variants = new ArrayList<>();
+
+		BufferedImage thumb = cropToFill(src, THUMB_WIDTH, THUMB_HEIGHT);
+		String thumbUrl = write(thumb, alpha, PostImageVariant.KIND_THUMBNAIL);
+		variants.add(new PostImageVariant(ref, PostImageVariant.KIND_THUMBNAIL, THUMB_WIDTH, THUMB_HEIGHT, thumbUrl));
+
+		for (int w : WIDTHS) {
+			if (w >= src.getWidth()) {
+				break;
+			}
+			int h = (int) Math.round((double) src.getHeight() * w / src.getWidth());
+			String kind = "w" + w;
+			variants.add(new PostImageVariant(ref, kind, w, h, write(scale(src, w, h), alpha, kind)));
+		}
+
+		try {
+			variantRepository.saveAll(variants);
+		} catch (DataIntegrityViolationException e) {
+			// post was deleted while we were resizing
+			variants.forEach(v -> fileStorageService.release(v.getImageUrl()));
+			return;
+		}
+
+		// only swaps the list thumbnail if it still points at this original; either way the
+		// detail now carries a srcset and needs a new version
+		OffsetDateTime now = OffsetDateTime.now();
+		if (postRepository.replaceThumbnail(postId, url, thumbUrl, now) > 0
+				|| postRepository.touchVersion(postId, now) > 0) {
+			postDetailCache.invalidate(postId);
+		}
+	}
+
+	private BufferedImage read(String url) throws IOException {
+		try (InputStream in = fileStorageService.open(url);
+				ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(iis, true, true);
+				if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+					return null;
+				}
+				return reader.read(0);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private String write(BufferedImage img, boolean alpha, String kind) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+		String ext;
+		if (alpha) {
+			ImageIO.write(img, "png", out);
+			ext = ".png";
+		} else {
+			ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(JPEG_QUALITY);
+			try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+				writer.setOutput(ios);
+				writer.write(null, new IIOImage(img, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+			ext = ".jpg";
+		}
+
+		StoredFile stored = fileStorageService.store(new ByteArrayInputStream(out.toByteArray()), kind + ext);
+		return stored.getUrl();
+	}
+
+	// Scale to cover the box, then centre-crop
+	static BufferedImage cropToFill(BufferedImage src, int width, int height) {
+		double ratio = Math.max((double) width / src.getWidth(), (double) height / src.getHeight());
+		int w = Math.max(width, (int) Math.ceil(src.getWidth() * ratio));
+		int h = Math.max(height, (int) Math.ceil(src.getHeight() * ratio));
+		BufferedImage scaled = scale(src, w, h);
+		return scaled.getSubimage((w - width) / 2, (h - height) / 2, width, height);
+	}
+
+	/**
+	 * Bilinear scaling, halving step by step for large reductions: a single bilinear pass
+	 * from 4000px to 400px skips most source pixels and aliases badly.
+	 */
+	static BufferedImage scale(BufferedImage src, int width, int height) {
+		int type = src.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage current = src;
+		int w = src.getWidth();
+		int h = src.getHeight();
+
+		do {
+			w = Math.max(width, w / 2);
+			h = Math.max(height, h / 2);
+			if (w < width * 2 && h < height * 2) {
+				w = width;
+				h = height;
+			}
+
+			BufferedImage next = new BufferedImage(w, h, type);
+			Graphics2D g = next.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.drawImage(current, 0, 0, w, h, null);
+			} finally {
+				g.dispose();
+			}
+			current = next;
+		} while (w != width || h != height);
+
+		return current;
+	}
+}
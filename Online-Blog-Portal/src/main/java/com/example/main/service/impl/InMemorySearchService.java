@@ -0,0 +1,287 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.PostSummary;
+import com.example.main.dto.RankCursor;
+import com.example.main.dto.SearchHit;
+import com.example.main.dto.SearchResponse;
+import com.example.main.entity.Post;
+import com.example.main.event.PostChangedEvent;
+import com.example.main.repository.PostRepository;
+import com.example.main.search.InvertedIndex;
+import com.example.main.service.SearchService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps an {@link InvertedIndex} of published posts in memory, fed by {@link PostChangedEvent}s.
+ * The index is written to a single segment file when dirty; on startup the segment is loaded and
+ * only posts changed since it was written are re-read, otherwise the index is rebuilt from the
+ * posts table.
+ */
+@Service
+@ConditionalOnProperty(name = "search.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemorySearchService implements SearchService {
+
+	private static final Logger log = LoggerFactory.getLogger(InMemorySearchService.class);
+
+	private static final short STATUS_PUBLISHED = 1;
+	private static final String SEGMENT_FILE = "posts.seg";
+	private static final int REBUILD_BATCH = 200;
+	private static final int DEFAULT_LIMIT = 20;
+	private static final int MAX_LIMIT = 50;
+	// re-read posts touched shortly before the segment was written, in case they raced the flush
+	private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Value("${search.index-dir:search-index}")
+	private String indexDir;
+
+	private volatile InvertedIndex index = new InvertedIndex();
+	// non-null while a rebuild or startup catch-up is running, so concurrent post changes reach the
+	// new index too
+	private volatile InvertedIndex building;
+	// posts whose events reached `building`: the event carries their latest state, so rows the build
+	// read before it (e.g. a post since deleted) must not be applied after it. Guarded by buildLock,
+	// which also covers swapping `index` to the finished build, so an event sees either the old
+	// index together with the build or the new index alone.
+	private final Set<Long> changedWhileBuilding = new HashSet<>();
+	private final ReentrantLock buildLock = new ReentrantLock();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+
+	@Override
+	public SearchResponse search(String query, String cursor, Integer limit) {
+		if (query == null || query.isBlank()) {
+			throw new IllegalArgumentException("Query must not be empty");
+		}
+		int size = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+		RankCursor after = (cursor == null || cursor.isBlank()) ? null : RankCursor.decode(cursor);
+
+		// one extra hit tells us whether another page exists
+		InvertedIndex.Result result = after == null ? index.search(query, null, 0, size + 1)
+				: index.search(query, after.getScore(), after.getId(), size + 1);
+		List<InvertedIndex.Hit> hits = result.getHits();
+		Integer total = after == null ? result.getTotal() : null;
+		if (hits.isEmpty()) {
+			return new SearchResponse(query, total, List.of(), null);
+		}
+
+		List<Long> ids = new ArrayList<>(hits.size());
+		for (InvertedIndex.Hit hit : hits) {
+			ids.add(hit.getPostId());
+		}
+		Map<Long, PostSummary> byId = new HashMap<>();
+		for (PostSummary s : postRepository.findSummariesByIds(ids)) {
+			byId.put(s.getPostId(), s);
+		}
+
+		// keep the index ranking; skip ids whose row vanished between index and read
+		List<SearchHit> items = new ArrayList<>(size);
+		for (InvertedIndex.Hit hit : hits.subList(0, Math.min(size, hits.size()))) {
+			PostSummary s = byId.get(hit.getPostId());
+			if (s != null) {
+				items.add(new SearchHit(s, hit.getScore(), null));
+			}
+		}
+
+		String next = null;
+		if (hits.size() > size) {
+			InvertedIndex.Hit last = hits.get(size - 1);
+			next = new RankCursor(last.getScore(), last.getPostId()).encode();
+		}
+		return new SearchResponse(query, total, items, next);
+	}
+
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		buildLock.lock();
+		try {
+			// read `building` before `index`: the swap happens under this lock, so a build that
+			// finishes in between cannot leave the event on the replaced index only
+			InvertedIndex pending = building;
+			InvertedIndex current = index;
+			apply(current, event);
+			if (pending != null && pending != current) {
+				changedWhileBuilding.add(event.getPostId());
+				apply(pending, event);
+			}
+		} finally {
+			buildLock.unlock();
+		}
+		dirty.set(true);
+	}
+
+	private static void apply(InvertedIndex target, PostChangedEvent event) {
+		Post post = event.getPost();
+		if (event.getType() == PostChangedEvent.Type.DELETED || post == null) {
+			target.remove(event.getPostId());
+		} else {
+			index(target, post);
+		}
+	}
+
+	private static void index(InvertedIndex target, Post post) {
+		if (post.getStatus() != null && post.getStatus() == STATUS_PUBLISHED) {
+			target.put(post.getPostId(), post.getTitle(), post.getContent());
+		} else {
+			target.remove(post.getPostId());
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		Path segment = segmentPath();
+		if (Files.exists(segment)) {
+			try {
+				OffsetDateTime writtenAt = OffsetDateTime.ofInstant(Files.getLastModifiedTime(segment).toInstant(),
+						ZoneOffset.UTC);
+				InvertedIndex loaded = InvertedIndex.readFrom(segment);
+				int changed;
+				startBuilding(loaded);
+				try {
+					changed = catchUp(loaded, writtenAt.minus(CATCH_UP_MARGIN));
+					stopBuilding(loaded);
+				} finally {
+					stopBuilding(null);
+				}
+				log.info("Search index loaded: {} posts, {} changed since last flush", loaded.size(), changed);
+				if (changed > 0) {
+					dirty.set(true);
+					flush();
+				}
+				return;
+			} catch (IOException | RuntimeException e) {
+				log.warn("Search segment {} unreadable, rebuilding", segment, e);
+			}
+		}
+		rebuild();
+	}
+
+	private int catchUp(InvertedIndex target, OffsetDateTime since) {
+		int changed = 0;
+		for (Post post : postRepository.findUpdatedSince(since)) {
+			applyRead(target, post.getPostId(), post);
+			changed++;
+		}
+
+		// posts deleted (or unpublished without an updatedAt) while the app was down
+		Set<Long> published = new HashSet<>(postRepository.findPublishedIds());
+		for (long id : target.postIds()) {
+			if (!published.contains(id)) {
+				applyRead(target, id, null);
+				changed++;
+			}
+		}
+		return changed;
+	}
+
+	private void rebuild() {
+		long started = System.nanoTime();
+		InvertedIndex fresh = new InvertedIndex();
+		startBuilding(fresh);
+		try {
+			Long afterId = 0L;
+			List<Post> batch;
+			do {
+				batch = postRepository.findPublishedBatch(afterId, PageRequest.of(0, REBUILD_BATCH));
+				for (Post post : batch) {
+					applyRead(fresh, post.getPostId(), post);
+					afterId = post.getPostId();
+				}
+			} while (batch.size() == REBUILD_BATCH);
+			stopBuilding(fresh);
+		} finally {
+			stopBuilding(null);
+		}
+		log.info("Search index rebuilt: {} posts in {} ms", fresh.size(), (System.nanoTime() - started) / 1_000_000);
+		dirty.set(true);
+		flush();
+	}
+
+	private void startBuilding(InvertedIndex target) {
+		buildLock.lock();
+		try {
+			changedWhileBuilding.clear();
+			building = target;
+		} finally {
+			buildLock.unlock();
+		}
+	}
+
+	// finished: swaps in `result`; null when the build failed (or already stopped), keeping `index`
+	private void stopBuilding(InvertedIndex result) {
+		buildLock.lock();
+		try {
+			if (result != null) {
+				index = result;
+			}
+			building = null;
+			changedWhileBuilding.clear();
+		} finally {
+			buildLock.unlock();
+		}
+	}
+
+	// applies a row read from the database (null post = gone) unless an event has overtaken it
+	private void applyRead(InvertedIndex target, long postId, Post post) {
+		buildLock.lock();
+		try {
+			if (changedWhileBuilding.contains(postId)) {
+				return;
+			}
+			if (post == null) {
+				target.remove(postId);
+			} else {
+				index(target, post);
+			}
+		} finally {
+			buildLock.unlock();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${search.flush-interval-ms:30000}", initialDelayString = "${search.flush-interval-ms:30000}")
+	@PreDestroy
+	public void flush() {
+		if (!dirty.getAndSet(false)) {
+			return;
+		}
+		try {
+			Path dir = Paths.get(indexDir);
+			Files.createDirectories(dir);
+			index.writeTo(segmentPath());
+		} catch (IOException e) {
+			dirty.set(true);
+			log.warn("Could not write search segment", e);
+		}
+	}
+
+	private Path segmentPath() {
+		return Paths.get(indexDir).resolve(SEGMENT_FILE);
+	}
+}
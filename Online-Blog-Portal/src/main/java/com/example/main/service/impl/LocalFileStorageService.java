@@ -1,33 +1,137 @@
 package com.example.main.service.impl;
 
+import com.example.main.dto.StoredFile;
 import com.example.main.service.FileStorageService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
 
 @Service
+@ConditionalOnProperty(name = "storage.mode", havingValue = "local", matchIfMissing = true)
 public class LocalFileStorageService implements FileStorageService {
 
     private static final String UPLOAD_DIR = "uploads/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    public LocalFileStorageService() {
+        this(Paths.get(UPLOAD_DIR));
+    }
+
+    LocalFileStorageService(Path root) {
+        this.root = root.normalize();
+    }
+
+    @Override
+    public StoredFile store(InputStream in, String originalFilename) throws IOException {
+        Path uploadDir = root;
+        Files.createDirectories(uploadDir);
+
+        // random names: concurrent variant writes ("thumb.jpg") must never land on the same file,
+        // and release() relies on each file having exactly one owner
+        String fileName = UUID.randomUUID() + ContentAddressedFileStorageService.extension(originalFilename);
+        Path filePath = uploadDir.resolve(fileName);
+
+        // write to a temp file first so readers never see a half-written upload
+        Path tmp = Files.createTempFile(uploadDir, "upload-", ".part");
+        try {
+            Written written = streamToFile(in, tmp);
+            Files.move(tmp, filePath, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredFile("/uploads/" + fileName, written.sha256, written.size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String url) throws IOException {
+        Path file = toPath(url);
+        if (file == null) {
+            throw new IOException("Not a stored file: " + url);
+        }
+        return Files.newInputStream(file);
+    }
 
     @Override
-    public String saveFile(MultipartFile file) throws IOException {
-        if (file == null || file.isEmpty()) {
+    public void release(String url) {
+        // every upload gets its own file here, so nothing else can be pointing at it
+        Path file = toPath(url);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // best effort, a leftover file is harmless
+        }
+    }
+
+    private Path toPath(String url) {
+        if (url == null || !url.startsWith("/uploads/")) {
             return null;
         }
+        Path dir = root;
+        Path file = dir.resolve(url.substring("/uploads/".length())).normalize();
+        return file.startsWith(dir) ? file : null;
+    }
+
+    /**
+     * Copies the stream to {@code target} through a fixed-size buffer, hashing each chunk on the way,
+     * so memory use does not depend on the file size.
+     */
+    static Written streamToFile(InputStream in, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+
+        try (ReadableByteChannel src = Channels.newChannel(in);
+             FileChannel dst = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            while (src.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), buffer.position(), buffer.remaining());
+                while (buffer.hasRemaining()) {
+                    size += dst.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
 
-        File uploadDir = new File(UPLOAD_DIR);
-        if (!uploadDir.exists()) uploadDir.mkdirs();
+        return new Written(HexFormat.of().formatHex(digest.digest()), size);
+    }
 
-        String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(UPLOAD_DIR + fileName);
-        Files.write(filePath, file.getBytes());
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Written {
+        final String sha256;
+        final long size;
 
-        return "/uploads/" + fileName;
+        Written(String sha256, long size) {
+            this.sha256 = sha256;
+            this.size = size;
+        }
     }
 }
@@ -0,0 +1,100 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.PostDetail;
+import com.example.main.event.PostViewsFlushedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near-cache of post-detail snapshots, bounded by their estimated heap size (see
+ * {@link TinyLfuCache} for the admission policy).
+ *
+ * Entries are keyed by post id and remember the version they were loaded at; a lookup passes the
+ * current version (already read for the conditional GET) and a mismatch is a miss, so edits made
+ * through other instances are never served stale. Local writers invalidate synchronously as well.
+ *
+ * The stored view total is kept next to the snapshot (it is not part of it, see
+ * {@link PostDetail}) and advanced on every local flush; views flushed by other instances show up
+ * once the entry expires.
+ */
+@Component
+public class PostDetailCache {
+
+	private final TinyLfuCache<Long, Cached> cache;
+
+	static final class Cached {
+
+		final PostDetail detail;
+		final long storedViews;
+
+		Cached(PostDetail detail, long storedViews) {
+			this.detail = detail;
+			this.storedViews = storedViews;
+		}
+	}
+
+	public PostDetailCache(@Value("${posts.cache.max-bytes:33554432}") long maxBytes,
+			@Value("${posts.cache.ttl-seconds:300}") long ttlSeconds) {
+		// sketch sized for ~8 KB per post, a typical article with a few images
+		int expectedEntries = (int) Math.min(1 << 20, Math.max(64, maxBytes / 8192));
+		this.cache = new TinyLfuCache<>(maxBytes, expectedEntries, TimeUnit.SECONDS.toNanos(ttlSeconds),
+				PostDetailCache::weigh);
+	}
+
+	Cached get(Long postId, Long version) {
+		return cache.get(postId, c -> Objects.equals(c.detail.getVersion(), version));
+	}
+
+	/** Flushed view total of the cached copy at any version, or null when not cached. */
+	Long storedViews(Long postId) {
+		Cached c = cache.get(postId);
+		return c == null ? null : c.storedViews;
+	}
+
+	void put(PostDetail detail, Long storedViews) {
+		cache.put(detail.getPostId(), new Cached(detail, storedViews == null ? 0 : storedViews));
+	}
+
+	public void invalidate(Long postId) {
+		cache.invalidate(postId);
+	}
+
+	@EventListener
+	public void onViewsFlushed(PostViewsFlushedEvent event) {
+		for (Map.Entry<Long, Long> e : event.getViews().entrySet()) {
+			cache.update(e.getKey(), c -> new Cached(c.detail, c.storedViews + e.getValue()));
+		}
+	}
+
+	public Map<String, Object> snapshot() {
+		return cache.stats();
+	}
+
+	/** One numeric entry of {@link #snapshot()}, e.g. {@code "hits"}. */
+	public double stat(String name) {
+		return cache.stat(name);
+	}
+
+	// rough retained size: object headers plus UTF-16 strings
+	static int weigh(Cached c) {
+		PostDetail d = c.detail;
+		long bytes = 256 + chars(d.getTitle()) + chars(d.getContent()) + chars(d.getExcerpt())
+				+ chars(d.getCategory()) + chars(d.getThumbnailUrl());
+		for (PostDetail.Image image : d.getImages()) {
+			bytes += 64 + chars(image.getImageUrl()) + chars(image.getSrcset());
+			for (PostDetail.Variant variant : image.getVariants()) {
+				bytes += 48 + chars(variant.getKind()) + chars(variant.getImageUrl());
+			}
+		}
+		return (int) Math.min(Integer.MAX_VALUE, bytes);
+	}
+
+	private static long chars(String s) {
+		return s == null ? 0 : 40 + 2L * s.length();
+	}
+}
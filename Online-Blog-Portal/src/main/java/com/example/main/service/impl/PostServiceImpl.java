@@ -1,14 +1,26 @@
 package com.example.main.service.impl;
 
 import com.example.main.config.CustomUserDetails;
+import com.example.main.dto.CursorPage;
+import com.example.main.dto.KeysetCursor;
+import com.example.main.dto.PostDetail;
 import com.example.main.dto.PostRequest;
+import com.example.main.dto.PostSummary;
+import com.example.main.dto.PostViews;
+import com.example.main.dto.ResourceVersion;
 import com.example.main.entity.Post;
 import com.example.main.entity.PostImage;
+import com.example.main.entity.PostImageVariant;
+import com.example.main.event.PostChangedEvent;
 import com.example.main.repository.PostImageRepository;
+import com.example.main.repository.PostImageVariantRepository;
 import com.example.main.repository.PostRepository;
 import com.example.main.service.FileStorageService;
+import com.example.main.service.ImageVariantService;
 import com.example.main.service.PostService;
+import com.example.main.service.ViewCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +29,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -32,7 +46,25 @@ public class PostServiceImpl implements PostService {
 	@Autowired
 	private FileStorageService fileStorageService;
 
+	@Autowired
+	private ImageVariantService imageVariantService;
+
+	@Autowired
+	private PostImageVariantRepository variantRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ViewCounterService viewCounterService;
+
+	@Autowired
+	private PostDetailCache postDetailCache;
+
 	private static final short ROLE_ADMIN = 1;
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int EXCERPT_LENGTH = 200;
 
 	@Override
 	public Post createPost(PostRequest req, List<MultipartFile> files) throws IOException {
@@ -40,6 +72,7 @@ public class PostServiceImpl implements PostService {
 		post.setAuthorId(req.getAuthorId());
 		post.setTitle(req.getTitle());
 		post.setContent(req.getContent());
+		post.setExcerpt(buildExcerpt(req.getContent()));
 		post.setCategory(req.getCategory());
 		post.setStatus(req.getStatus());
 		post.setFeatured(req.getFeatured());
@@ -50,6 +83,8 @@ public class PostServiceImpl implements PostService {
 
 		Post savedPost = postRepository.save(post);
 
+		List<PostImage> savedImages = new ArrayList<>();
+
 		if (files != null && !files.isEmpty()) {
 			boolean thumbnailSet = (savedPost.getThumbnailUrl() != null);
 
@@ -60,7 +95,7 @@ public class PostServiceImpl implements PostService {
 				String fileUrl = fileStorageService.saveFile(file);
 
 				PostImage img = new PostImage(savedPost, fileUrl);
-				postImageRepository.save(img);
+				savedImages.add(postImageRepository.save(img));
 
 				if (!thumbnailSet) {
 					savedPost.setThumbnailUrl(fileUrl);
@@ -71,12 +106,46 @@ public class PostServiceImpl implements PostService {
 			savedPost = postRepository.save(savedPost);
 		}
 
+		// thumbnails / responsive widths are built in the background; the list view
+		// switches to the thumbnail once it exists
+		for (PostImage img : savedImages) {
+			imageVariantService.generateAsync(img);
+		}
+
+		eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.CREATED, savedPost.getPostId(), savedPost));
 		return savedPost;
 	}
 
 	@Override
-	public List<Post> getAllPosts() {
-		return postRepository.findAll();
+	public CursorPage<PostSummary> getPosts(String cursor, Integer limit, Short status, String category, Boolean featured,
+			Long authorId) {
+		int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+		// fetch one extra row to know whether another page exists
+		int wanted = size + 1;
+
+		// published rows first, then the undated ones (NULLS LAST); the second query only runs on
+		// the page where the published rows run out
+		KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+		List<PostSummary> rows;
+		if (after != null && after.getTimestamp() == null) {
+			rows = postRepository.findUnpublishedPage(status, category, featured, authorId, after.getId(), wanted);
+		} else {
+			rows = new ArrayList<>(postRepository.findPublishedPage(status, category, featured, authorId,
+					after != null ? after.getTimestamp() : null, after != null ? after.getId() : null, wanted));
+			if (rows.size() < wanted) {
+				rows.addAll(postRepository.findUnpublishedPage(status, category, featured, authorId, null,
+						wanted - rows.size()));
+			}
+		}
+
+		if (rows.size() <= size) {
+			return new CursorPage<>(rows, null);
+		}
+
+		List<PostSummary> items = rows.subList(0, size);
+		PostSummary last = items.get(size - 1);
+		String next = new KeysetCursor(last.getPublishedAt(), last.getPostId()).encode();
+		return new CursorPage<>(items, next);
 	}
 
 	@Override
@@ -87,6 +156,44 @@ public class PostServiceImpl implements PostService {
 		});
 	}
 
+	@Override
+	public Optional<ResourceVersion> getPostVersion(Long id) {
+		return postRepository.findVersion(id);
+	}
+
+	@Override
+	public Optional<PostDetail> getPostDetail(Long id, Long version) {
+		PostDetailCache.Cached cached = postDetailCache.get(id, version);
+		if (cached != null) {
+			return Optional.of(cached.detail);
+		}
+
+		return postRepository.findById(id).map(post -> {
+			List<PostImageVariant> variants = post.getImages().isEmpty() ? List.of()
+					: variantRepository.findByImage_Post_PostId(id);
+			PostDetail detail = PostDetail.from(post, variants);
+			// a concurrent edit may have moved past the version asked for; don't cache that copy
+			if (Objects.equals(post.getVersion(), version)) {
+				postDetailCache.put(detail, post.getStoredViews());
+			}
+			return detail;
+		});
+	}
+
+	@Override
+	public Optional<PostViews> getPostViews(Long id) {
+		// the flushed total does not depend on the post version, so any cached copy will do
+		Long storedViews = postDetailCache.storedViews(id);
+		if (storedViews == null) {
+			Optional<Long> loaded = postRepository.findStoredViews(id);
+			if (loaded.isEmpty()) {
+				return Optional.empty();
+			}
+			storedViews = loaded.get();
+		}
+		return Optional.of(new PostViews(id, viewCounterService.currentCount(id, storedViews)));
+	}
+
 	@Override
 	public Post updatePost(Long id, Post updatedPost) {
 		Post post = postRepository.findById(id).orElseThrow(() -> new RuntimeException("Post not found"));
@@ -104,12 +211,16 @@ public class PostServiceImpl implements PostService {
 
 		post.setTitle(updatedPost.getTitle());
 		post.setContent(updatedPost.getContent());
+		post.setExcerpt(buildExcerpt(updatedPost.getContent()));
 		post.setCategory(updatedPost.getCategory());
 		post.setStatus(updatedPost.getStatus());
 		post.setFeatured(updatedPost.getFeatured());
 		post.setPublishedAt(updatedPost.getPublishedAt());
 
-		return postRepository.save(post);
+		Post saved = postRepository.save(post);
+		postDetailCache.invalidate(id);
+		eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.UPDATED, id, saved));
+		return saved;
 	}
 
 	@Override
@@ -127,6 +238,36 @@ public class PostServiceImpl implements PostService {
 			throw new AccessDeniedException("You cannot delete this post");
 		}
 
+		List<String> imageUrls = new ArrayList<>(post.getImages().stream().map(PostImage::getImageUrl).toList());
+
+		List<PostImageVariant> variants = variantRepository.findByImage_Post_PostId(id);
+		variants.forEach(v -> imageUrls.add(v.getImageUrl()));
+		variantRepository.deleteAllInBatch(variants);
+
 		postRepository.delete(post);
+		postDetailCache.invalidate(id);
+		eventPublisher.publishEvent(new PostChangedEvent(PostChangedEvent.Type.DELETED, id, null));
+
+		// after the rows are gone, let storage drop blobs nobody references
+		for (String url : imageUrls) {
+			fileStorageService.release(url);
+		}
+	}
+
+	// Strip HTML tags / markdown markers and cut at a word boundary
+	static String buildExcerpt(String content) {
+		if (content == null) {
+			return null;
+		}
+		String text = content.replaceAll("<[^>]*>", " ").replaceAll("[#*_`>\\[\\]]", "").replaceAll("\\s+", " ")
+				.trim();
+		if (text.length() <= EXCERPT_LENGTH) {
+			return text;
+		}
+		int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+		if (cut <= 0) {
+			cut = EXCERPT_LENGTH;
+		}
+		return text.substring(0, cut) + "…";
 	}
 }
@@ -0,0 +1,109 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.RankCursor;
+import com.example.main.dto.SearchHit;
+import com.example.main.dto.SearchResponse;
+import com.example.main.repository.PostRepository;
+import com.example.main.search.TextAnalyzer;
+import com.example.main.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ranks in the database with ts_rank_cd over the generated {@code posts.search_vector} column.
+ * The vector is maintained by PostgreSQL inside the same transaction as the post write, so every
+ * node sees a consistent index without any in-process state.
+ */
+@Service
+@ConditionalOnProperty(name = "search.mode", havingValue = "postgres")
+public class PostgresSearchService implements SearchService {
+
+	private static final int DEFAULT_LIMIT = 20;
+	private static final int MAX_LIMIT = 50;
+	private static final int MAX_TERMS = 16;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Override
+	public SearchResponse search(String query, String cursor, Integer limit) {
+		if (query == null || query.isBlank()) {
+			throw new IllegalArgumentException("Query must not be empty");
+		}
+		int size = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+		RankCursor after = (cursor == null || cursor.isBlank()) ? null : RankCursor.decode(cursor);
+
+		String tsquery = toTsQuery(query);
+		if (tsquery == null) {
+			return new SearchResponse(query, 0, List.of(), null);
+		}
+
+		// fetch one extra row to know whether another page exists
+		List<Object[]> rows = after == null ? postRepository.searchFirstPage(tsquery, size + 1)
+				: postRepository.searchPageAfter(tsquery, after.getScore(), after.getId(), size + 1);
+		Integer total = after == null ? (int) postRepository.countSearchMatches(tsquery) : null;
+
+		List<SearchHit> items = new ArrayList<>(Math.min(rows.size(), size));
+		for (Object[] row : rows.subList(0, Math.min(rows.size(), size))) {
+			items.add(toHit(row));
+		}
+
+		String next = null;
+		if (rows.size() > size) {
+			SearchHit last = items.get(size - 1);
+			next = new RankCursor(last.getScore(), last.getPostId()).encode();
+		}
+		return new SearchResponse(query, total, items, next);
+	}
+
+	/**
+	 * Builds an OR query from the same folded terms the in-memory engine uses. Terms only contain
+	 * letters and digits, so no tsquery syntax can leak in; the last term gets a prefix match.
+	 */
+	static String toTsQuery(String query) {
+		Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+		if (terms.isEmpty()) {
+			return null;
+		}
+		List<String> parts = new ArrayList<>(terms);
+		if (parts.size() > MAX_TERMS) {
+			parts = parts.subList(0, MAX_TERMS);
+		}
+		String last = parts.get(parts.size() - 1);
+		List<String> ts = new ArrayList<>(parts.subList(0, parts.size() - 1));
+		ts.add(TextAnalyzer.lastTermIsPrefix(query) ? last + ":*" : last);
+		return String.join(" | ", ts);
+	}
+
+	private static SearchHit toHit(Object[] row) {
+		return new SearchHit(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), (String) row[2],
+				(String) row[3], (String) row[4], row[5] == null ? null : ((Number) row[5]).shortValue(),
+				(Boolean) row[6], toOffsetDateTime(row[7]), toOffsetDateTime(row[8]), (String) row[9],
+				row[10] == null ? null : ((Number) row[10]).intValue(), ((Number) row[11]).floatValue(),
+				(String) row[12]);
+	}
+
+	private static OffsetDateTime toOffsetDateTime(Object value) {
+		if (value == null || value instanceof OffsetDateTime) {
+			return (OffsetDateTime) value;
+		}
+		if (value instanceof Instant instant) {
+			return instant.atOffset(ZoneOffset.UTC);
+		}
+		if (value instanceof Timestamp ts) {
+			return ts.toInstant().atOffset(ZoneOffset.UTC);
+		}
+		return ((LocalDateTime) value).atOffset(ZoneOffset.UTC);
+	}
+}
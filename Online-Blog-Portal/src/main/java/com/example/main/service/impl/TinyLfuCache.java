@@ -0,0 +1,393 @@
+package com.example.main.service.impl;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Weight-bounded cache with W-TinyLFU admission.
+ *
+ * New entries land in a small LRU window (1% of the weight). Entries leaving the window compete
+ * for a place in the main segmented LRU (probation + protected, 80% protected): the candidate only
+ * gets in if a count-min sketch says it has been asked for more often than the entry it would
+ * evict. One-hit wonders therefore pass through the window without flushing hot posts out. The
+ * sketch is halved every {@code 10 * width} increments so old popularity fades.
+ *
+ * Weights are caller-defined (bytes here); total weight never exceeds {@code maximumWeight}.
+ * Entries also expire {@code ttlNanos} after they were written. A single lock guards everything;
+ * every operation is O(1) apart from evicting several small entries for a big one.
+ */
+class TinyLfuCache<K, V> {
+
+	private static final double WINDOW_SHARE = 0.01;
+	private static final double PROTECTED_SHARE = 0.80;
+
+	private final long maximumWeight;
+	private final long windowMax;
+	private final long mainMax;
+	private final long protectedMax;
+	private final long ttlNanos;
+	private final ToIntFunction<V> weigher;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<K, Node<K, V>> data = new HashMap<>();
+	private final Segment<K, V> window = new Segment<>();
+	private final Segment<K, V> probation = new Segment<>();
+	private final Segment<K, V> protectedSegment = new Segment<>();
+	private final FrequencySketch sketch;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long evictedWeight;
+	private long rejections;
+	private long expirations;
+
+	private static final class Node<K, V> {
+
+		final K key;
+		V value;
+		int weight;
+		long expiresAt;
+		Segment<K, V> segment;
+		Node<K, V> prev;
+		Node<K, V> next;
+
+		Node(K key, V value, int weight, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/** Intrusive LRU list: head is least recently used. */
+	private static final class Segment<K, V> {
+
+		Node<K, V> head;
+		Node<K, V> tail;
+		long weight;
+
+		void addLast(Node<K, V> n) {
+			n.segment = this;
+			n.prev = tail;
+			n.next = null;
+			if (tail == null) {
+				head = n;
+			} else {
+				tail.next = n;
+			}
+			tail = n;
+			weight += n.weight;
+		}
+
+		void unlink(Node<K, V> n) {
+			if (n.prev == null) {
+				head = n.next;
+			} else {
+				n.prev.next = n.next;
+			}
+			if (n.next == null) {
+				tail = n.prev;
+			} else {
+				n.next.prev = n.prev;
+			}
+			n.prev = null;
+			n.next = null;
+			n.segment = null;
+			weight -= n.weight;
+		}
+
+		void moveToLast(Node<K, V> n) {
+			if (n != tail) {
+				unlink(n);
+				addLast(n);
+			}
+		}
+	}
+
+	/**
+	 * @param expectedEntries sizes the frequency sketch; a rough count of entries that fit
+	 * @param ttlNanos        time to live after a write, 0 for none
+	 */
+	TinyLfuCache(long maximumWeight, int expectedEntries, long ttlNanos, ToIntFunction<V> weigher) {
+		this.maximumWeight = maximumWeight;
+		this.windowMax = Math.max(1, (long) (maximumWeight * WINDOW_SHARE));
+		this.mainMax = maximumWeight - windowMax;
+		this.protectedMax = (long) (mainMax * PROTECTED_SHARE);
+		this.ttlNanos = ttlNanos;
+		this.weigher = weigher;
+		this.sketch = new FrequencySketch(expectedEntries);
+	}
+
+	V get(K key) {
+		return get(key, v -> true);
+	}
+
+	/** Like {@link #get(Object)}, but a present value failing {@code valid} is dropped and counted as a miss. */
+	V get(K key, Predicate<? super V> valid) {
+		lock.lock();
+		try {
+			sketch.increment(key.hashCode()); // misses count too: that is what earns admission later
+			Node<K, V> n = data.get(key);
+			if (n == null) {
+				misses++;
+				return null;
+			}
+			if (ttlNanos > 0 && System.nanoTime() - n.expiresAt > 0) {
+				remove(n);
+				expirations++;
+				misses++;
+				return null;
+			}
+			if (!valid.test(n.value)) {
+				remove(n);
+				misses++;
+				return null;
+			}
+			hits++;
+			onHit(n);
+			return n.value;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void put(K key, V value) {
+		int weight = weigher.applyAsInt(value);
+		lock.lock();
+		try {
+			Node<K, V> old = data.get(key);
+			if (old != null) {
+				remove(old);
+			}
+			if (weight > mainMax) {
+				rejections++; // could never be admitted to the main space
+				return;
+			}
+			Node<K, V> n = new Node<>(key, value, weight, System.nanoTime() + ttlNanos);
+			data.put(key, n);
+			window.addLast(n);
+			while (window.weight > windowMax) {
+				Node<K, V> candidate = window.head;
+				window.unlink(candidate);
+				admit(candidate);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** Replaces the value of a present entry in place, keeping its weight, position and expiry. */
+	void update(K key, UnaryOperator<V> fn) {
+		lock.lock();
+		try {
+			Node<K, V> n = data.get(key);
+			if (n != null) {
+				n.value = fn.apply(n.value);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void invalidate(K key) {
+		lock.lock();
+		try {
+			Node<K, V> n = data.get(key);
+			if (n != null) {
+				remove(n);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	int size() {
+		lock.lock();
+		try {
+			return data.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	Map<String, Object> stats() {
+		lock.lock();
+		try {
+			long requests = hits + misses;
+			Map<String, Object> res = new LinkedHashMap<>();
+			res.put("entries", data.size());
+			res.put("weightedSize", window.weight + probation.weight + protectedSegment.weight);
+			res.put("maximumWeight", maximumWeight);
+			res.put("hits", hits);
+			res.put("misses", misses);
+			res.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+			res.put("evictions", evictions);
+			res.put("evictedWeight", evictedWeight);
+			res.put("admissionRejections", rejections);
+			res.put("expirations", expirations);
+			return res;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** One numeric entry of {@link #stats()} without building the map, e.g. {@code "hits"}. */
+	double stat(String name) {
+		lock.lock();
+		try {
+			return switch (name) {
+				case "entries" -> data.size();
+				case "weightedSize" -> window.weight + probation.weight + protectedSegment.weight;
+				case "maximumWeight" -> maximumWeight;
+				case "hits" -> hits;
+				case "misses" -> misses;
+				case "hitRate" -> hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+				case "evictions" -> evictions;
+				case "evictedWeight" -> evictedWeight;
+				case "admissionRejections" -> rejections;
+				case "expirations" -> expirations;
+				default -> throw new IllegalArgumentException("Unknown cache stat: " + name);
+			};
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void onHit(Node<K, V> n) {
+		if (n.segment == probation) {
+			probation.unlink(n);
+			protectedSegment.addLast(n);
+			while (protectedSegment.weight > protectedMax && protectedSegment.head != n) {
+				Node<K, V> demoted = protectedSegment.head;
+				protectedSegment.unlink(demoted);
+				probation.addLast(demoted);
+			}
+		} else {
+			n.segment.moveToLast(n);
+		}
+	}
+
+	// the window's LRU entry either takes main-space victims' places or is dropped itself. Every victim it
+	// would displace is compared first, so a losing candidate never costs the main space an entry
+	private void admit(Node<K, V> candidate) {
+		long excess = probation.weight + protectedSegment.weight + candidate.weight - mainMax;
+		if (excess > 0) {
+			int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+			Node<K, V> victim = mainHead();
+			Node<K, V> lastVictim = null;
+			for (long freed = 0; freed < excess; victim = mainNext(victim)) {
+				if (candidateFrequency <= sketch.frequency(victim.key.hashCode())) {
+					data.remove(candidate.key);
+					evicted(candidate);
+					rejections++;
+					return;
+				}
+				freed += victim.weight;
+				lastVictim = victim;
+			}
+			Node<K, V> evicted;
+			do {
+				evicted = mainHead();
+				remove(evicted);
+				evicted(evicted);
+			} while (evicted != lastVictim);
+		}
+		probation.addLast(candidate);
+	}
+
+	// main space in eviction order: probation's LRU end first, then protected's
+	private Node<K, V> mainHead() {
+		return probation.head != null ? probation.head : protectedSegment.head;
+	}
+
+	private Node<K, V> mainNext(Node<K, V> n) {
+		return n.next != null || n.segment == protectedSegment ? n.next : protectedSegment.head;
+	}
+
+	private void evicted(Node<K, V> n) {
+		evictions++;
+		evictedWeight += n.weight;
+	}
+
+	private void remove(Node<K, V> n) {
+		data.remove(n.key);
+		if (n.segment != null) {
+			n.segment.unlink(n);
+		}
+	}
+
+	/** Count-min sketch of 4-bit counters, four rows, sixteen counters per long. */
+	static final class FrequencySketch {
+
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+				0xcbf29ce484222325L };
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final long[] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int expectedEntries) {
+			int width = Integer.highestOneBit(Math.max(16, expectedEntries) - 1) << 1;
+			this.table = new long[width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * width;
+		}
+
+		int frequency(int hashCode) {
+			int h = spread(hashCode);
+			int min = 15;
+			for (int i = 0; i < 4; i++) {
+				min = Math.min(min, (int) ((table[indexOf(h, i)] >>> shiftOf(h, i)) & 15));
+			}
+			return min;
+		}
+
+		void increment(int hashCode) {
+			int h = spread(hashCode);
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(h, i);
+				int shift = shiftOf(h, i);
+				if (((table[index] >>> shift) & 15) != 15) {
+					table[index] += 1L << shift;
+					added = true;
+				}
+			}
+			if (added && ++additions == sampleSize) {
+				reset();
+			}
+		}
+
+		// halve every counter so the sketch follows recent popularity
+		private void reset() {
+			for (int i = 0; i < table.length; i++) {
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			additions /= 2;
+		}
+
+		private int indexOf(int h, int row) {
+			long x = (h + SEEDS[row]) * SEEDS[row];
+			x += x >>> 32;
+			return (int) x & mask;
+		}
+
+		private static int shiftOf(int h, int row) {
+			return ((h >>> (row << 3)) & 15) << 2;
+		}
+
+		private static int spread(int x) {
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			return (x >>> 16) ^ x;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.main.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded top-K of posts by exponentially time-decayed activity.
+ *
+ * Scores use forward decay: an event of weight w at time t adds w * e^(lambda * (t - landmark)),
+ * so adding is O(log capacity) and older scores never need touching; relative order is the same
+ * as decaying everything to "now". The landmark is moved forward (rescaling all slots) before the
+ * exponent gets large.
+ *
+ * When full, a post not on the board replaces the lowest slot and inherits its score as
+ * {@code error} (Space-Saving), so a post with enough recent activity always gets in. Results are
+ * ranked by {@code score - error}, the activity the post is known to have.
+ */
+class TrendingBoard {
+
+	// rescale once e^exponent would pass ~1e13, long before double precision suffers
+	private static final double MAX_EXPONENT = 30;
+
+	private static final Comparator<Slot> BY_SCORE = Comparator.comparingDouble((Slot s) -> s.score)
+			.thenComparingLong(s -> s.postId);
+
+	private final int capacity;
+	private final double lambda;
+	private long landmark;
+
+	private final Map<Long, Slot> slots = new HashMap<>();
+	private final TreeSet<Slot> byScore = new TreeSet<>(BY_SCORE);
+	private List<Long> ranked; // cached result of top(), null when stale
+
+	private static final class Slot {
+
+		final long postId;
+		double score;
+		double error;
+
+		Slot(long postId, double score, double error) {
+			this.postId = postId;
+			this.score = score;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * @param halfLifeSeconds time for an event's contribution to halve
+	 * @param nowEpochSecond  initial landmark
+	 */
+	TrendingBoard(int capacity, double halfLifeSeconds, long nowEpochSecond) {
+		this.capacity = capacity;
+		this.lambda = Math.log(2) / halfLifeSeconds;
+		this.landmark = nowEpochSecond;
+	}
+
+	synchronized void add(long postId, double weight, long epochSecond) {
+		if (weight <= 0) {
+			return;
+		}
+		if (lambda * (epochSecond - landmark) > MAX_EXPONENT) {
+			rescale(epochSecond);
+		}
+		double w = weight * Math.exp(lambda * (epochSecond - landmark));
+
+		Slot slot = slots.get(postId);
+		if (slot != null) {
+			byScore.remove(slot);
+			slot.score += w;
+			byScore.add(slot);
+		} else if (slots.size() < capacity) {
+			slot = new Slot(postId, w, 0);
+			slots.put(postId, slot);
+			byScore.add(slot);
+		} else {
+			Slot min = byScore.pollFirst();
+			slots.remove(min.postId);
+			slot = new Slot(postId, min.score + w, min.score);
+			slots.put(postId, slot);
+			byScore.add(slot);
+		}
+		ranked = null;
+	}
+
+	synchronized void remove(long postId) {
+		Slot slot = slots.remove(postId);
+		if (slot != null) {
+			byScore.remove(slot);
+			ranked = null;
+		}
+	}
+
+	/** Current score in landmark units, or 0 when the post is not on the board. */
+	synchronized double score(long postId) {
+		Slot slot = slots.get(postId);
+		return slot == null ? 0 : slot.score - slot.error;
+	}
+
+	/** Weight that, added at {@code epochSecond}, equals the given landmark-unit score. */
+	synchronized double weightAt(double score, long epochSecond) {
+		return score / Math.exp(lambda * (epochSecond - landmark));
+	}
+
+	synchronized List<Long> top(int k) {
+		if (ranked == null) {
+			List<Slot> all = new ArrayList<>(slots.values());
+			all.sort(Comparator.comparingDouble((Slot s) -> s.score - s.error).reversed()
+					.thenComparing(Comparator.comparingLong((Slot s) -> s.postId).reversed()));
+			List<Long> ids = new ArrayList<>(all.size());
+			for (Slot s : all) {
+				ids.add(s.postId);
+			}
+			ranked = ids;
+		}
+		return List.copyOf(ranked.subList(0, Math.min(k, ranked.size())));
+	}
+
+	synchronized int size() {
+		return slots.size();
+	}
+
+	private void rescale(long newLandmark) {
+		double factor = Math.exp(-lambda * (newLandmark - landmark));
+		landmark = newLandmark;
+		byScore.clear();
+		for (Slot s : slots.values()) {
+			s.score *= factor;
+			s.error *= factor;
+			byScore.add(s);
+		}
+	}
+}
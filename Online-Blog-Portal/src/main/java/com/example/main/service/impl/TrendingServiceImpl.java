@@ -0,0 +1,233 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.PostSummary;
+import com.example.main.entity.Post;
+import com.example.main.event.CommentAddedEvent;
+import com.example.main.event.PostChangedEvent;
+import com.example.main.event.PostViewsFlushedEvent;
+import com.example.main.repository.CommentRepository;
+import com.example.main.repository.PostRepository;
+import com.example.main.repository.PostViewCountRepository;
+import com.example.main.service.TrendingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps {@link TrendingBoard}s (one global, one per category) fed by view flushes, new comments
+ * and publications, so the "hot" rail is a lookup plus one primary-key fetch of the summaries.
+ *
+ * On startup the boards are rebuilt from storage: publication times, comments inside the decay
+ * window and stored view totals. Stored views carry no timestamps, so they are placed halfway
+ * between publication and the last flush.
+ */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+	private static final Logger log = LoggerFactory.getLogger(TrendingServiceImpl.class);
+
+	// guards the boards against a concurrent rebuild (three queries); a ReentrantLock so virtual threads blocked
+	// behind a rebuild release their carrier
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private static final short STATUS_PUBLISHED = 1;
+	private static final String NO_CATEGORY = "";
+	private static final int DEFAULT_LIMIT = 10;
+	private static final int MAX_LIMIT = 50;
+	// comments older than this many half-lives contribute < 0.1% and are not replayed
+	private static final int REBUILD_HALF_LIVES = 10;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private PostViewCountRepository viewCountRepository;
+
+	@Value("${trending.half-life-hours:24}")
+	private double halfLifeHours;
+
+	@Value("${trending.capacity:1000}")
+	private int capacity;
+
+	@Value("${trending.category-capacity:200}")
+	private int categoryCapacity;
+
+	@Value("${trending.weight.view:1}")
+	private double viewWeight;
+
+	@Value("${trending.weight.comment:5}")
+	private double commentWeight;
+
+	@Value("${trending.weight.publish:20}")
+	private double publishWeight;
+
+	private volatile TrendingBoard global;
+	private final Map<String, TrendingBoard> byCategory = new ConcurrentHashMap<>();
+	// published post -> category (NO_CATEGORY when none); routes activity to the right board
+	private final Map<Long, String> categoryOf = new ConcurrentHashMap<>();
+
+	@Override
+	public List<PostSummary> getTrending(String category, Integer limit) {
+		int k = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+		TrendingBoard board = (category == null || category.isBlank()) ? global : byCategory.get(category);
+		if (board == null) {
+			return List.of();
+		}
+
+		List<Long> ids = board.top(k);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, PostSummary> byId = new HashMap<>();
+		for (PostSummary s : postRepository.findSummariesByIds(ids)) {
+			byId.put(s.getPostId(), s);
+		}
+		List<PostSummary> result = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			PostSummary s = byId.get(id);
+			if (s != null) {
+				result.add(s);
+			}
+		}
+		return result;
+	}
+
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		lock.lock();
+		try {
+			if (global == null) {
+				return; // not rebuilt yet; the rebuild reads the post from storage
+			}
+			Long postId = event.getPostId();
+			Post post = event.getPost();
+			boolean published = event.getType() != PostChangedEvent.Type.DELETED && post != null
+					&& post.getStatus() != null && post.getStatus() == STATUS_PUBLISHED;
+			String previous = categoryOf.get(postId);
+
+			if (!published) {
+				if (previous != null) {
+					categoryOf.remove(postId);
+					global.remove(postId);
+					board(previous).remove(postId);
+				}
+				return;
+			}
+
+			String category = post.getCategory() == null ? NO_CATEGORY : post.getCategory();
+			long now = Instant.now().getEpochSecond();
+			if (previous == null) {
+				// newly published: recency boost at publication time
+				OffsetDateTime at = post.getPublishedAt() != null ? post.getPublishedAt() : post.getCreatedAt();
+				categoryOf.put(postId, category);
+				record(postId, category, publishWeight, at == null ? now : at.toEpochSecond());
+			} else if (!previous.equals(category)) {
+				// moved: carry the global score over to the new category board
+				board(previous).remove(postId);
+				categoryOf.put(postId, category);
+				board(category).add(postId, global.weightAt(global.score(postId), now), now);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@EventListener
+	public void onViewsFlushed(PostViewsFlushedEvent event) {
+		if (global == null) {
+			return;
+		}
+		long at = event.getFlushedAt().getEpochSecond();
+		for (Map.Entry<Long, Long> e : event.getViews().entrySet()) {
+			String category = categoryOf.get(e.getKey());
+			if (category != null) {
+				record(e.getKey(), category, viewWeight * e.getValue(), at);
+			}
+		}
+	}
+
+	// after commit, so a rolled-back comment is never counted
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCommentAdded(CommentAddedEvent event) {
+		String category = categoryOf.get(event.getPostId());
+		if (global != null && category != null) {
+			OffsetDateTime at = event.getCreatedAt();
+			record(event.getPostId(), category, commentWeight,
+					at == null ? Instant.now().getEpochSecond() : at.toEpochSecond());
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.lock();
+		try {
+			long started = System.nanoTime();
+			long now = Instant.now().getEpochSecond();
+			global = new TrendingBoard(capacity, halfLifeHours * 3600, now);
+			byCategory.clear();
+			categoryOf.clear();
+
+			Map<Long, Long> publishedAt = new HashMap<>();
+			for (Object[] row : postRepository.findPublishedForTrending()) {
+				Long postId = (Long) row[0];
+				String category = row[1] == null ? NO_CATEGORY : (String) row[1];
+				long at = row[2] == null ? now : ((OffsetDateTime) row[2]).toEpochSecond();
+				categoryOf.put(postId, category);
+				publishedAt.put(postId, at);
+				record(postId, category, publishWeight, at);
+			}
+
+			OffsetDateTime since = OffsetDateTime.now()
+					.minusSeconds((long) (halfLifeHours * 3600 * REBUILD_HALF_LIVES));
+			for (Object[] row : commentRepository.findCreatedSince(since)) {
+				String category = categoryOf.get((Long) row[0]);
+				if (category != null) {
+					record((Long) row[0], category, commentWeight, ((OffsetDateTime) row[1]).toEpochSecond());
+				}
+			}
+
+			for (Object[] row : viewCountRepository.findAllCounts()) {
+				Long postId = (Long) row[0];
+				String category = categoryOf.get(postId);
+				if (category == null || row[1] == null) {
+					continue;
+				}
+				long from = publishedAt.get(postId);
+				long to = row[2] == null ? now : ((OffsetDateTime) row[2]).toEpochSecond();
+				record(postId, category, viewWeight * (Long) row[1], from + Math.max(0, to - from) / 2);
+			}
+
+			log.info("Trending rebuilt: {} posts on the board, {} categories in {} ms", global.size(),
+					byCategory.size(), (System.nanoTime() - started) / 1_000_000);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void record(Long postId, String category, double weight, long epochSecond) {
+		global.add(postId, weight, epochSecond);
+		board(category).add(postId, weight, epochSecond);
+	}
+
+	private TrendingBoard board(String category) {
+		return byCategory.computeIfAbsent(category,
+				c -> new TrendingBoard(categoryCapacity, halfLifeHours * 3600, Instant.now().getEpochSecond()));
+	}
+}
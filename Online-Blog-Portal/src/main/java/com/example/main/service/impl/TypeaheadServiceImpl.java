@@ -0,0 +1,202 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.Suggestion;
+import com.example.main.entity.Post;
+import com.example.main.event.PostChangedEvent;
+import com.example.main.repository.PostRepository;
+import com.example.main.search.CompletionTrie;
+import com.example.main.search.TextAnalyzer;
+import com.example.main.service.TypeaheadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Title and category completions served from a {@link CompletionTrie}, never from the database.
+ *
+ * Titles are keyed by every word start (up to {@link #MAX_WORD_STARTS}) so "boot" finds "Spring
+ * Boot tips". A title weighs 1 + its comment count (posts.comment_count), plus a bonus when
+ * featured; a category weighs its number of published posts. Post events update the trie in
+ * place; new comments are picked up by the periodic rebuild.
+ */
+@Service
+public class TypeaheadServiceImpl implements TypeaheadService {
+
+	private static final Logger log = LoggerFactory.getLogger(TypeaheadServiceImpl.class);
+
+	// incremental updates wait for a running rebuild, which reads every published title; request threads block
+	// here, and a virtual thread waiting on a ReentrantLock unmounts where one waiting on a monitor would pin
+	private final ReentrantLock lock = new ReentrantLock();
+
+	static final String KIND_POST = "post";
+	static final String KIND_CATEGORY = "category";
+
+	private static final short STATUS_PUBLISHED = 1;
+	private static final int MAX_WORD_STARTS = 6;
+	private static final int MAX_KEY_LENGTH = 80;
+	private static final long FEATURED_BONUS = 5;
+	private static final int DEFAULT_LIMIT = 8;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	// swapped whole by rebuild(); mutated in place under `lock` by post events
+	private volatile State state = new State();
+
+	private static final class Indexed {
+
+		final CompletionTrie.Entry title;
+		final String category;
+
+		Indexed(CompletionTrie.Entry title, String category) {
+			this.title = title;
+			this.category = category;
+		}
+	}
+
+	private static final class State {
+
+		final CompletionTrie trie = new CompletionTrie();
+		final Map<Long, Indexed> posts = new HashMap<>();
+		final Map<String, Integer> categoryCounts = new HashMap<>();
+		final Map<String, CompletionTrie.Entry> categories = new HashMap<>();
+
+		void add(Long postId, String title, String category, boolean featured, Integer comments) {
+			CompletionTrie.Entry entry = null;
+			if (title != null && !title.isBlank()) {
+				long weight = 1 + (comments == null ? 0 : comments) + (featured ? FEATURED_BONUS : 0);
+				entry = new CompletionTrie.Entry(KIND_POST, postId, title, weight);
+				for (String key : titleKeys(title)) {
+					trie.insert(key, entry);
+				}
+			}
+			String cat = (category == null || category.isBlank()) ? null : category;
+			if (cat != null) {
+				adjustCategory(cat, 1);
+			}
+			posts.put(postId, new Indexed(entry, cat));
+		}
+
+		void remove(Long postId) {
+			Indexed old = posts.remove(postId);
+			if (old == null) {
+				return;
+			}
+			if (old.title != null) {
+				for (String key : titleKeys(old.title.getText())) {
+					trie.remove(key, old.title);
+				}
+			}
+			if (old.category != null) {
+				adjustCategory(old.category, -1);
+			}
+		}
+
+		// entries are immutable, so a count change replaces the category's entry
+		private void adjustCategory(String category, int delta) {
+			String key = key(TextAnalyzer.analyze(category), 0);
+			if (key.isEmpty()) {
+				return;
+			}
+			CompletionTrie.Entry old = categories.remove(category);
+			if (old != null) {
+				trie.remove(key, old);
+			}
+			int count = categoryCounts.getOrDefault(category, 0) + delta;
+			if (count <= 0) {
+				categoryCounts.remove(category);
+				return;
+			}
+			categoryCounts.put(category, count);
+			CompletionTrie.Entry entry = new CompletionTrie.Entry(KIND_CATEGORY, null, category, count);
+			categories.put(category, entry);
+			trie.insert(key, entry);
+		}
+	}
+
+	@Override
+	public List<Suggestion> suggest(String prefix, Integer limit) {
+		if (prefix == null || prefix.isBlank()) {
+			return List.of();
+		}
+		int k = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, CompletionTrie.MAX_K);
+
+		// punctuation-only input analyzes to nothing; an empty key would match every entry in the trie
+		String key = key(TextAnalyzer.analyze(prefix), 0);
+		if (key.isEmpty()) {
+			return List.of();
+		}
+		// a trailing space means the last word is complete: "java " should not suggest "javascript"
+		if (!TextAnalyzer.lastTermIsPrefix(prefix)) {
+			key += " ";
+		}
+
+		List<Suggestion> result = new ArrayList<>(k);
+		for (CompletionTrie.Entry e : state.trie.complete(key, k)) {
+			result.add(new Suggestion(e.getKind(), e.getText(), e.getId()));
+		}
+		return result;
+	}
+
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		lock.lock();
+		try {
+			State current = state;
+			current.remove(event.getPostId());
+			Post post = event.getPost();
+			if (event.getType() != PostChangedEvent.Type.DELETED && post != null && post.getStatus() != null
+					&& post.getStatus() == STATUS_PUBLISHED) {
+				current.add(post.getPostId(), post.getTitle(), post.getCategory(),
+						Boolean.TRUE.equals(post.getFeatured()), post.getCommentCount());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${typeahead.refresh-interval-ms:600000}", initialDelayString = "${typeahead.refresh-interval-ms:600000}")
+	public void rebuild() {
+		lock.lock();
+		try {
+			long started = System.nanoTime();
+			State fresh = new State();
+			for (Object[] row : postRepository.findPublishedTitles()) {
+				fresh.add((Long) row[0], (String) row[1], (String) row[2], Boolean.TRUE.equals(row[3]),
+						(Integer) row[4]);
+			}
+			state = fresh;
+			log.debug("Typeahead rebuilt: {} posts, {} categories in {} ms", fresh.posts.size(),
+					fresh.categories.size(), (System.nanoTime() - started) / 1_000_000);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static Set<String> titleKeys(String title) {
+		List<String> tokens = TextAnalyzer.analyze(title);
+		Set<String> keys = new LinkedHashSet<>();
+		for (int i = 0; i < tokens.size() && i < MAX_WORD_STARTS; i++) {
+			keys.add(key(tokens, i));
+		}
+		return keys;
+	}
+
+	private static String key(List<String> tokens, int from) {
+		String key = String.join(" ", tokens.subList(from, tokens.size()));
+		return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+	}
+}
@@ -1,23 +1,32 @@
 package com.example.main.service.impl;
 
+import com.example.main.config.UserAuthStateCache;
 import com.example.main.dto.UserRequest;
 import com.example.main.entity.User;
+import com.example.main.repository.PostRepository;
 import com.example.main.repository.UserRepository;
 import com.example.main.service.UserService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class UserServiceImpl implements UserService {
 
 	private final UserRepository userRepository;
+	private final UserAuthStateCache authStateCache;
+	private final PostRepository postRepository;
 	private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
 
-	public UserServiceImpl(UserRepository userRepository) {
+	public UserServiceImpl(UserRepository userRepository, UserAuthStateCache authStateCache,
+			PostRepository postRepository) {
 		this.userRepository = userRepository;
+		this.authStateCache = authStateCache;
+		this.postRepository = postRepository;
 	}
 
 	@Override
@@ -58,6 +67,14 @@ public class UserServiceImpl implements UserService {
 	public User updateUser(Long id, UserRequest req) {
 		return userRepository.findById(id).map(user -> {
 
+			// tokens carry email + role, so changing either (or the password) revokes them
+			boolean revokeTokens = (req.getEmail() != null && !req.getEmail().equals(user.getEmail()))
+					|| (req.getRole() != null && !req.getRole().equals(user.getRole()))
+					|| (req.getPasswordHash() != null && !req.getPasswordHash().isEmpty());
+			// names are shown on the user's comments
+			boolean renamed = (req.getUsername() != null && !req.getUsername().equals(user.getUsername()))
+					|| (req.getDisplayName() != null && !Objects.equals(req.getDisplayName(), user.getDisplayName()));
+
 			if (req.getUsername() != null)
 				user.setUsername(req.getUsername());
 
@@ -73,7 +90,14 @@ public class UserServiceImpl implements UserService {
 			if (req.getPasswordHash() != null && !req.getPasswordHash().isEmpty())
 				user.setPasswordHash(encoder.encode(req.getPasswordHash()));
 
-			return userRepository.save(user);
+			if (revokeTokens)
+				user.setTokenVersion(user.getTokenVersion() + 1);
+
+			User saved = userRepository.save(user);
+			authStateCache.invalidate(id);
+			if (renamed)
+				postRepository.touchCommentsByAuthor(id, OffsetDateTime.now());
+			return saved;
 
 		}).orElseThrow(() -> new RuntimeException("User not found"));
 	}
@@ -81,5 +105,6 @@ public class UserServiceImpl implements UserService {
 	@Override
 	public void deleteUser(Long id) {
 		userRepository.deleteById(id);
+		authStateCache.invalidate(id);
 	}
 }
@@ -0,0 +1,234 @@
+package com.example.main.service.impl;
+
+import com.example.main.event.PostViewsFlushedEvent;
+import com.example.main.service.ViewCounterService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts views in memory (one striped {@link LongAdder} per post, so concurrent viewers of a hot
+ * post never contend) and writes the accumulated deltas to post_view_counts in batches.
+ *
+ * A flush is an UPDATE batch followed by an INSERT batch for posts without a row yet, in one
+ * transaction and in post_id order so concurrent flushers on other nodes lock rows in the same
+ * order. If the batch fails (a post was deleted, or another node inserted the row first) the
+ * chunk is retried row by row; if the database is unreachable the deltas go back into memory.
+ */
+@Service
+public class ViewCounterServiceImpl implements ViewCounterService {
+
+	private static final Logger log = LoggerFactory.getLogger(ViewCounterServiceImpl.class);
+
+	// serializes flushes; held while batches are written, so a lock rather than a monitor (which would pin a
+	// virtual thread to its carrier for the whole write)
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private static final int BATCH_SIZE = 500;
+	private static final String UPDATE_SQL = "UPDATE post_view_counts SET views = views + ?, updated_at = ?"
+			+ " WHERE post_id = ?";
+	private static final String INSERT_SQL = "INSERT INTO post_view_counts (post_id, views, updated_at)"
+			+ " VALUES (?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private final TransactionTemplate tx;
+
+	// an adder found idle by a flush is removed and drained once more; a viewer still holding it
+	// notices on its next look-up and moves what that drain missed (see add)
+	private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+	// deltas being written right now, so reads do not dip while a flush is in progress
+	private volatile Map<Long, Long> inFlight = Map.of();
+
+	public ViewCounterServiceImpl(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void recordView(Long postId) {
+		add(postId, 1);
+	}
+
+	private void add(Long postId, long views) {
+		LongAdder adder = pending.get(postId);
+		if (adder == null) {
+			adder = pending.computeIfAbsent(postId, k -> new LongAdder());
+		}
+		adder.add(views);
+
+		// Retired under us. The flush drains after removing, so anything it missed was added after
+		// the removal and every such adder sees it here; sumThenReset hands each view to exactly one
+		// of the flush and the viewers racing on the same adder.
+		while (pending.get(postId) != adder) {
+			long stranded = adder.sumThenReset();
+			if (stranded == 0) {
+				return;
+			}
+			adder = pending.computeIfAbsent(postId, k -> new LongAdder());
+			adder.add(stranded);
+		}
+	}
+
+	@Override
+	public long currentCount(Long postId, Long storedViews) {
+		long count = storedViews == null ? 0 : storedViews;
+		LongAdder adder = pending.get(postId);
+		if (adder != null) {
+			count += adder.sum();
+		}
+		return count + inFlight.getOrDefault(postId, 0L);
+	}
+
+	@Scheduled(fixedDelayString = "${views.flush-interval-ms:5000}")
+	@PreDestroy
+	public void flush() {
+		lock.lock();
+		try {
+			TreeMap<Long, Long> deltas = new TreeMap<>();
+			for (Map.Entry<Long, LongAdder> e : pending.entrySet()) {
+				long delta = e.getValue().sumThenReset();
+				if (delta != 0) {
+					merge(deltas, e.getKey(), delta);
+				} else if (pending.remove(e.getKey(), e.getValue())) {
+					// views that landed between the drain and the removal
+					merge(deltas, e.getKey(), e.getValue().sumThenReset());
+				}
+			}
+			if (deltas.isEmpty()) {
+				return;
+			}
+
+			inFlight = deltas;
+			Map<Long, Long> written = new HashMap<>();
+			try {
+				List<Map.Entry<Long, Long>> rows = new ArrayList<>(deltas.entrySet());
+				int from = 0;
+				while (from < rows.size()) {
+					List<Map.Entry<Long, Long>> chunk = rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE));
+					boolean ok;
+					try {
+						writeChunk(chunk);
+						chunk.forEach(row -> written.put(row.getKey(), row.getValue()));
+						ok = true;
+					} catch (DataIntegrityViolationException e) {
+						ok = writeRows(chunk, written);
+					} catch (DataAccessException e) {
+						log.warn("View count flush failed, keeping {} posts in memory", rows.size() - from, e);
+						requeue(chunk);
+						ok = false;
+					}
+					from += chunk.size();
+					if (!ok) {
+						requeue(rows.subList(from, rows.size()));
+						break;
+					}
+				}
+			} finally {
+				inFlight = Map.of();
+			}
+			if (!written.isEmpty()) {
+				eventPublisher.publishEvent(new PostViewsFlushedEvent(written, Instant.now()));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void writeChunk(List<Map.Entry<Long, Long>> chunk) {
+		OffsetDateTime now = OffsetDateTime.now();
+		tx.executeWithoutResult(status -> {
+			int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, chunk.size(), (ps, row) -> {
+				ps.setLong(1, row.getValue());
+				ps.setObject(2, now);
+				ps.setLong(3, row.getKey());
+			});
+			List<Map.Entry<Long, Long>> missing = new ArrayList<>();
+			for (int i = 0; i < chunk.size(); i++) {
+				if (updated[0][i] == 0) {
+					missing.add(chunk.get(i));
+				}
+			}
+			if (!missing.isEmpty()) {
+				jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, row) -> {
+					ps.setLong(1, row.getKey());
+					ps.setLong(2, row.getValue());
+					ps.setObject(3, now);
+				});
+			}
+		});
+	}
+
+	// Slow path after a failed batch: one transaction per post. Returns false (with the unwritten
+	// rows back in memory) if the database itself failed.
+	private boolean writeRows(List<Map.Entry<Long, Long>> chunk, Map<Long, Long> written) {
+		for (int i = 0; i < chunk.size(); i++) {
+			Map.Entry<Long, Long> row = chunk.get(i);
+			try {
+				// a second attempt turns a lost insert race into an update
+				if (upsert(row) || upsert(row)) {
+					written.put(row.getKey(), row.getValue());
+				}
+			} catch (DataAccessException e) {
+				log.warn("View count flush failed, keeping {} posts in memory", chunk.size() - i, e);
+				requeue(chunk.subList(i, chunk.size()));
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// false when not written: another node inserted the row first, or the post is gone
+	private boolean upsert(Map.Entry<Long, Long> row) {
+		OffsetDateTime now = OffsetDateTime.now();
+		try {
+			tx.executeWithoutResult(status -> {
+				if (jdbcTemplate.update(UPDATE_SQL, row.getValue(), now, row.getKey()) == 0) {
+					jdbcTemplate.update(INSERT_SQL, row.getKey(), row.getValue(), now);
+				}
+			});
+			return true;
+		} catch (DuplicateKeyException e) {
+			return false;
+		} catch (DataIntegrityViolationException e) {
+			log.debug("Dropping {} views for deleted post {}", row.getValue(), row.getKey());
+			return false;
+		}
+	}
+
+	private void requeue(List<Map.Entry<Long, Long>> rows) {
+		for (Map.Entry<Long, Long> row : rows) {
+			add(row.getKey(), row.getValue());
+		}
+	}
+
+	private static void merge(Map<Long, Long> deltas, Long postId, long delta) {
+		if (delta != 0) {
+			deltas.merge(postId, delta, Long::sum);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.main.config;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+	@Test
+	void cachedClaimsAreServedUntilTheTokenExpires() {
+		JwtUtil jwt = new JwtUtil(clock, 100);
+		String token = jwt.generateToken(7L, "a@example.com", (short) 1, 3);
+
+		VerifiedClaims first = jwt.verify(token);
+		assertEquals(7L, first.getUserId());
+		assertEquals((short) 1, first.getRole());
+		assertEquals(3, first.getTokenVersion());
+		// an equal token cut out of a header is a different String instance: still a hit
+		assertSame(first, jwt.verify(("Bearer " + token).substring(7)));
+
+		clock.advance(Duration.ofHours(24).plusSeconds(1));
+		assertThrows(ExpiredJwtException.class, () -> jwt.verify(token));
+		assertEquals(0, jwt.cachedTokens());
+	}
+
+	@Test
+	void cacheDoesNotVouchForAForeignPayloadWithAKnownSignature() {
+		JwtUtil jwt = new JwtUtil(clock, 100);
+		String user = jwt.generateToken(7L, "a@example.com", (short) 0, 0);
+		String admin = jwt.generateToken(8L, "b@example.com", (short) 1, 0);
+		jwt.verify(user);
+
+		String[] u = user.split("\\.");
+		String[] a = admin.split("\\.");
+		assertThrows(JwtException.class, () -> jwt.verify(u[0] + "." + a[1] + "." + u[2]));
+		assertThrows(JwtException.class, () -> jwt.verify(user.substring(0, user.length() - 2) + "xx"));
+	}
+
+	@Test
+	void evictionDropsExpiredEntriesFirstAndStaysBounded() {
+		JwtUtil jwt = new JwtUtil(clock, 10);
+		String old = jwt.generateToken(1L, "old@example.com", (short) 0, 0);
+		jwt.verify(old);
+
+		clock.advance(Duration.ofHours(23));
+		for (long id = 2; id <= 9; id++) {
+			jwt.verify(jwt.generateToken(id, id + "@example.com", (short) 0, 0));
+		}
+		String recent = jwt.generateToken(10L, "recent@example.com", (short) 0, 0);
+		jwt.verify(recent);
+		assertEquals(10, jwt.cachedTokens());
+
+		// full: the next insert drops the expired token only
+		clock.advance(Duration.ofHours(2));
+		jwt.verify(jwt.generateToken(11L, "new@example.com", (short) 0, 0));
+		assertEquals(10, jwt.cachedTokens());
+
+		// full of live tokens: trimmed to half
+		for (long id = 12; id <= 40; id++) {
+			jwt.verify(jwt.generateToken(id, id + "@example.com", (short) 0, 0));
+			assertTrue(jwt.cachedTokens() <= 10);
+		}
+		assertEquals(10L, jwt.verify(recent).getUserId());
+	}
+
+	static final class MutableClock extends Clock {
+
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration d) {
+			now = now.plus(d);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
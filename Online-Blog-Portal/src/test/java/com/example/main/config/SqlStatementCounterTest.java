@@ -0,0 +1,63 @@
+package com.example.main.config;
+
+import com.example.main.support.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlStatementCounterTest {
+
+	private final SqlStatementCounter inspector = new SqlStatementCounter();
+
+	@Test
+	void nestedScopesRollUpIntoTheEnclosingScope() {
+		inspector.inspect("select 1"); // no scope open: ignored
+		try (SqlStatementCounter.Scope outer = SqlStatementCounter.open(true)) {
+			inspector.inspect("select a");
+			try (SqlStatementCounter.Scope inner = SqlStatementCounter.open()) {
+				inspector.inspect("select b from t where id=?");
+				inspector.inspect("select b from t where id=?");
+				assertEquals(2, inner.count());
+				// tracks because the enclosing scope does
+				assertEquals(Map.entry("select b from t where id=?", 2), inner.mostRepeated());
+			}
+			inspector.inspect("select b from t where id=?");
+			assertEquals(4, outer.count());
+			assertEquals(4, SqlStatementCounter.count());
+			assertEquals(Map.entry("select b from t where id=?", 3), outer.mostRepeated());
+		}
+		assertEquals(0, SqlStatementCounter.count());
+	}
+
+	@Test
+	void untrackedScopesStayUntracked() {
+		try (SqlStatementCounter.Scope outer = SqlStatementCounter.open()) {
+			try (SqlStatementCounter.Scope inner = SqlStatementCounter.open()) {
+				inspector.inspect("select a");
+				assertNull(inner.mostRepeated());
+			}
+			assertEquals(1, outer.count());
+			assertNull(outer.mostRepeated());
+		}
+	}
+
+	@Test
+	void budgetFailsWhenExceededAndNamesTheRepeatedStatement() {
+		assertEquals("ok", QueryBudget.atMost(2, () -> {
+			inspector.inspect("select 1");
+			return "ok";
+		}));
+
+		AssertionError error = assertThrows(AssertionError.class, () -> QueryBudget.atMost(2, () -> {
+			for (int i = 0; i < 5; i++) {
+				inspector.inspect("select * from post_images where post_id=?");
+			}
+		}));
+		assertEquals("Issued 5 SQL statements, budget is 2; most repeated 5x: select * from post_images where post_id=?",
+				error.getMessage());
+	}
+}
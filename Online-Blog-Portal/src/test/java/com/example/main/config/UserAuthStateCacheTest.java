@@ -0,0 +1,51 @@
+package com.example.main.config;
+
+import com.example.main.entity.User;
+import com.example.main.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAuthStateCacheTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserAuthStateCache cache = new UserAuthStateCache();
+	private final User user = new User();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+		user.setTokenVersion(2);
+		when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+	}
+
+	@Test
+	void bumpedTokenVersionRevokesOlderTokensOnceInvalidated() {
+		assertTrue(cache.isCurrent(7L, 2));
+		assertFalse(cache.isCurrent(7L, 1));
+
+		user.setTokenVersion(3);
+		assertTrue(cache.isCurrent(7L, 2)); // cached until the TTL or an invalidate
+		cache.invalidate(7L);
+		assertFalse(cache.isCurrent(7L, 2));
+		assertTrue(cache.isCurrent(7L, 3));
+		verify(userRepository, times(2)).findById(7L);
+	}
+
+	@Test
+	void deletedUsersAreRejectedAndCached() {
+		when(userRepository.findById(9L)).thenReturn(Optional.empty());
+		assertFalse(cache.isCurrent(9L, 0));
+		assertFalse(cache.isCurrent(9L, null));
+		verify(userRepository, times(1)).findById(9L);
+	}
+}
@@ -0,0 +1,250 @@
+package com.example.main.controller;
+
+import com.example.main.dto.CommentRequest;
+import com.example.main.dto.PostRequest;
+import com.example.main.dto.UserRequest;
+import com.example.main.entity.User;
+import com.example.main.service.CommentService;
+import com.example.main.service.PostService;
+import com.example.main.service.UserService;
+import com.example.main.support.QueryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "comments.flat-max=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class CommentControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private ObjectMapper json;
+
+	private User user;
+	private Long postId;
+	private Long firstId;
+
+	@BeforeEach
+	void seed() throws Exception {
+		String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+		UserRequest u = new UserRequest();
+		u.setUsername(name);
+		u.setEmail(name + "@example.com");
+		u.setPasswordHash("secret");
+		u.setDisplayName("Before");
+		user = userService.createUser(u);
+
+		PostRequest p = new PostRequest();
+		p.setAuthorId(user.getUserId());
+		p.setTitle("Post");
+		p.setContent("Body");
+		p.setStatus((short) 1);
+		postId = postService.createPost(p, null).getPostId();
+
+		CommentRequest c = new CommentRequest();
+		c.setPostId(postId);
+		c.setUserId(user.getUserId());
+		c.setContent("First");
+		firstId = commentService.createComment(c).getId();
+	}
+
+	@Test
+	void unchangedCommentsRevalidateWith304() throws Exception {
+		for (String url : new String[] { "/api/comments/post/" + postId, "/api/comments/post/" + postId + "/tree" }) {
+			String etag = mvc.perform(get(url)).andExpect(status().isOk()).andExpect(header().exists("ETag"))
+					.andReturn().getResponse().getHeader("ETag");
+			mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified());
+		}
+	}
+
+	@Test
+	void topLevelPagesFollowTheCursorWithoutGapsOrRepeats() throws Exception {
+		List<Long> expected = new ArrayList<>(List.of(firstId));
+		for (int i = 0; i < 4; i++) {
+			expected.add(comment(null, "Top " + i));
+		}
+		comment(firstId, "Reply");
+		comment(firstId, "Reply");
+
+		String url = "/api/comments/post/" + postId + "/page";
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			MvcResult res = mvc.perform(cursor == null ? get(url).param("limit", "2")
+					: get(url).param("limit", "2").param("cursor", cursor)).andExpect(status().isOk()).andReturn();
+			JsonNode page = json.readTree(res.getResponse().getContentAsString());
+			page.get("items").forEach(n -> {
+				seen.add(n.get("id").asLong());
+				assertTrue(n.get("parentId").isNull());
+			});
+			if (pages == 0) {
+				assertEquals(2, page.get("items").get(0).get("replyCount").asInt());
+			}
+			cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(expected, seen);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void repliesPageUnderTheirParent() throws Exception {
+		Long a = comment(firstId, "A");
+		Long b = comment(firstId, "B");
+		Long c = comment(firstId, "C");
+		comment(b, "Nested");
+		comment(null, "Unrelated");
+
+		String url = "/api/comments/" + firstId + "/replies";
+		String cursor = mvc.perform(get(url).param("limit", "2")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[*].id").value(contains(a.intValue(), b.intValue())))
+				.andExpect(jsonPath("$.items[1].replyCount").value(1))
+				.andExpect(jsonPath("$.items[1].replies.length()").value(0))
+				.andExpect(jsonPath("$.hasMore").value(true)).andReturn().getResponse().getContentAsString();
+
+		mvc.perform(get(url).param("limit", "2").param("cursor", json.readTree(cursor).get("nextCursor").asText()))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.items[*].id").value(contains(c.intValue())))
+				.andExpect(jsonPath("$.hasMore").value(false));
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		mvc.perform(get("/api/comments/post/" + postId + "/page").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(get("/api/comments/" + firstId + "/replies").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void flatListIsCappedAndPointsAtThePagedEndpoint() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			comment(null, "More " + i);
+		}
+		// comments.flat-max=4 for this class: the oldest four of six
+		mvc.perform(get("/api/comments/post/" + postId)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(4)).andExpect(jsonPath("$[0].id").value(firstId))
+				.andExpect(header().string("Deprecation", "true"))
+				.andExpect(header().string("Link", containsString("/api/comments/post/" + postId + "/page")));
+	}
+
+	@Test
+	void treeStaysWithinItsQueryBudget() throws Exception {
+		// a few levels of replies: the tree is built from one comment query, not one per level
+		Long parentId = null;
+		for (int depth = 0; depth < 4; depth++) {
+			CommentRequest c = new CommentRequest();
+			c.setPostId(postId);
+			c.setUserId(user.getUserId());
+			c.setParentId(parentId);
+			c.setContent("Reply " + depth);
+			parentId = commentService.createComment(c).getId();
+		}
+
+		// comment version, a page of roots, then one query for their threads whatever the depth
+		mvc.perform(get("/api/comments/post/" + postId + "/tree")).andExpect(status().isOk())
+				.andExpect(QueryBudget.atMost(3));
+	}
+
+	@Test
+	void treePagesRootsAndCarriesOnlyTheirThreads() throws Exception {
+		Long second = comment(null, "Second");
+		Long third = comment(null, "Third");
+		Long reply = comment(firstId, "Reply");
+		Long nested = comment(reply, "Nested");
+		comment(nested, "Too deep");
+		comment(third, "Reply to third");
+
+		String url = "/api/comments/post/" + postId + "/tree";
+		String body = mvc.perform(get(url).param("limit", "2").param("maxDepth", "3")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.comments[*].id").value(contains(firstId.intValue(), second.intValue())))
+				.andExpect(jsonPath("$.comments[0].replies[0].id").value(reply))
+				.andExpect(jsonPath("$.comments[0].replies[0].replies[0].id").value(nested))
+				// depth 3 reached: its reply is counted, not included
+				.andExpect(jsonPath("$.comments[0].replies[0].replies[0].replyCount").value(1))
+				.andExpect(jsonPath("$.comments[0].replies[0].replies[0].replies.length()").value(0))
+				.andExpect(jsonPath("$.hasMore").value(true)).andReturn().getResponse().getContentAsString();
+
+		mvc.perform(get(url).param("limit", "2").param("maxDepth", "3")
+				.param("cursor", json.readTree(body).get("nextCursor").asText())).andExpect(status().isOk())
+				.andExpect(jsonPath("$.comments[*].id").value(contains(third.intValue())))
+				.andExpect(jsonPath("$.comments[0].replyCount").value(1))
+				.andExpect(jsonPath("$.hasMore").value(false));
+
+		mvc.perform(get(url).param("cursor", "not-a-cursor")).andExpect(status().isBadRequest());
+	}
+
+	private Long comment(Long parentId, String content) {
+		CommentRequest c = new CommentRequest();
+		c.setPostId(postId);
+		c.setUserId(user.getUserId());
+		c.setParentId(parentId);
+		c.setContent(content);
+		return commentService.createComment(c).getId();
+	}
+
+	@Test
+	void newCommentChangesTheEtag() throws Exception {
+		String url = "/api/comments/post/" + postId;
+		String etag = mvc.perform(get(url)).andReturn().getResponse().getHeader("ETag");
+
+		CommentRequest c = new CommentRequest();
+		c.setPostId(postId);
+		c.setUserId(user.getUserId());
+		c.setContent("Second");
+		commentService.createComment(c);
+
+		mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2));
+	}
+
+	@Test
+	void authorRenameChangesTheEtag() throws Exception {
+		String list = "/api/comments/post/" + postId;
+		String tree = list + "/tree";
+		String listEtag = mvc.perform(get(list)).andExpect(jsonPath("$[0].authorDisplayName").value("Before")).andReturn()
+				.getResponse().getHeader("ETag");
+		String treeEtag = mvc.perform(get(tree)).andReturn().getResponse().getHeader("ETag");
+
+		UserRequest rename = new UserRequest();
+		rename.setDisplayName("After");
+		userService.updateUser(user.getUserId(), rename);
+
+		mvc.perform(get(list).header("If-None-Match", listEtag)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].authorDisplayName").value("After"));
+		mvc.perform(get(tree).header("If-None-Match", treeEtag)).andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.main.controller;
+
+import com.example.main.dto.PostRequest;
+import com.example.main.dto.UserRequest;
+import com.example.main.entity.PostImage;
+import com.example.main.entity.PostImageVariant;
+import com.example.main.entity.User;
+import com.example.main.repository.PostImageRepository;
+import com.example.main.repository.PostImageVariantRepository;
+import com.example.main.repository.PostRepository;
+import com.example.main.service.PostService;
+import com.example.main.service.UserService;
+import com.example.main.service.impl.PostDetailCache;
+import com.example.main.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class PostControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostDetailCache postDetailCache;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private PostImageRepository postImageRepository;
+
+	@Autowired
+	private PostImageVariantRepository variantRepository;
+
+	private Long authorId;
+	private Long postId;
+
+	@BeforeEach
+	void seed() throws Exception {
+		String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+		UserRequest u = new UserRequest();
+		u.setUsername(name);
+		u.setEmail(name + "@example.com");
+		u.setPasswordHash("secret");
+		u.setDisplayName("Author");
+		User user = userService.createUser(u);
+		authorId = user.getUserId();
+
+		PostRequest p = new PostRequest();
+		p.setAuthorId(authorId);
+		p.setTitle("Post");
+		p.setContent("Body");
+		p.setStatus((short) 1);
+		postId = postService.createPost(p, null).getPostId();
+	}
+
+	@Test
+	void detailRevalidatesWhileViewsKeepCounting() throws Exception {
+		String url = "/api/posts/" + postId;
+		String etag = mvc.perform(get(url)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.viewCount").doesNotExist()).andReturn().getResponse().getHeader("ETag");
+
+		// revalidated reads are views too, and the count is never behind a 304
+		mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified());
+		mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+		mvc.perform(get(url + "/views")).andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-store"))
+				.andExpect(jsonPath("$.postId").value(postId)).andExpect(jsonPath("$.viewCount").value(3));
+	}
+
+	@Test
+	void listingStaysWithinItsQueryBudget() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			PostRequest p = new PostRequest();
+			p.setAuthorId(authorId);
+			p.setTitle("More " + i);
+			p.setContent("Body");
+			p.setStatus((short) 1);
+			postService.createPost(p, null);
+		}
+		// one summary query however many posts are on the page
+		mvc.perform(get("/api/posts").param("limit", "3")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(3)).andExpect(QueryBudget.atMost(1));
+		// the page where published posts run out is topped up from the undated ones: one more
+		mvc.perform(get("/api/posts").param("limit", "200")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(greaterThanOrEqualTo(6)))
+				.andExpect(QueryBudget.atMost(2));
+	}
+
+	@Test
+	void detailStaysWithinItsQueryBudgetOnCacheMissAndHit() throws Exception {
+		String url = "/api/posts/" + postId;
+		postDetailCache.invalidate(postId);
+		// version, post, images (variants are only looked up for posts that have images)
+		mvc.perform(get(url)).andExpect(status().isOk()).andExpect(QueryBudget.atMost(3));
+		// cached at the current version: only the version lookup remains
+		mvc.perform(get(url)).andExpect(status().isOk()).andExpect(QueryBudget.atMost(1));
+	}
+
+	@Test
+	void detailServesGeneratedVariantsAsSrcset() throws Exception {
+		String url = "/api/posts/" + postId;
+		PostImage image = postImageRepository
+				.save(new PostImage(postRepository.findById(postId).get(), "/uploads/a.jpg"));
+		mvc.perform(get(url)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.images[0].imageUrl").value("/uploads/a.jpg")).andExpect(jsonPath("$.images[0].variants.length()").value(0))
+				.andExpect(jsonPath("$.images[0].srcset").doesNotExist());
+
+		// what ImageVariantServiceImpl leaves behind once the resize finishes
+		variantRepository.save(new PostImageVariant(image, PostImageVariant.KIND_THUMBNAIL, 400, 250, "/uploads/t.jpg"));
+		variantRepository.save(new PostImageVariant(image, "w960", 960, 540, "/uploads/w960.jpg"));
+		variantRepository.save(new PostImageVariant(image, "w480", 480, 270, "/uploads/w480.jpg"));
+		postRepository.touchVersion(postId, OffsetDateTime.now());
+
+		mvc.perform(get(url)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.images[0].variants.length()").value(3))
+				.andExpect(jsonPath("$.images[0].srcset").value("/uploads/w480.jpg 480w, /uploads/w960.jpg 960w"));
+	}
+
+	@Test
+	void viewsOfMissingPostIsNotFound() throws Exception {
+		mvc.perform(get("/api/posts/" + (postId + 1000) + "/views")).andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.main.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+	@Test
+	void roundTripKeepsTheInstantToTheNanosecond() {
+		OffsetDateTime at = OffsetDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789, ZoneOffset.ofHours(7));
+		String token = new KeysetCursor(at, 42L).encode();
+		assertFalse(token.contains("="));
+
+		KeysetCursor decoded = KeysetCursor.decode(token);
+		assertEquals(at.toInstant(), decoded.getTimestamp().toInstant());
+		assertEquals(42L, decoded.getId());
+	}
+
+	@Test
+	void roundTripWithoutTimestamp() {
+		KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(null, 7L).encode());
+		assertNull(decoded.getTimestamp());
+		assertEquals(7L, decoded.getId());
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y")); // "no-separator"
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("eDp5")); // "x:y"
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.main.repository;
+
+import com.example.main.dto.PostSummary;
+import com.example.main.entity.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostRepositoryTest {
+
+	private static final OffsetDateTime T0 = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+	@Autowired
+	private PostRepository postRepository;
+
+	private final List<Long> expected = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		// published, in insertion order: two share a timestamp so the id breaks the tie
+		Long p1 = save(1L, T0.plusHours(1));
+		Long p2 = save(1L, T0.plusHours(3));
+		Long p3 = save(1L, T0.plusHours(2));
+		Long p4 = save(1L, T0.plusHours(3));
+		Long p5 = save(1L, T0.plusHours(5));
+		Long d1 = save(1L, null);
+		Long d2 = save(1L, null);
+		Long d3 = save(1L, null);
+		save(2L, T0.plusHours(4));
+		save(2L, null);
+
+		// published_at DESC NULLS LAST, post_id DESC
+		expected.addAll(List.of(p5, p4, p2, p3, p1, d3, d2, d1));
+	}
+
+	@Test
+	void pagesCrossFromPublishedToUnpublishedRowsWithoutGapsOrRepeats() {
+		// page 2 straddles the boundary (published rows topped up with drafts), page 3 is drafts only
+		List<List<Long>> pages = walk(3, 1L);
+		assertEquals(List.of(3, 3, 2), pages.stream().map(List::size).toList());
+		assertEquals(expected, pages.stream().flatMap(List::stream).toList());
+	}
+
+	@Test
+	void everyPageSizeYieldsTheSameOrder() {
+		for (int size = 1; size <= expected.size() + 1; size++) {
+			assertEquals(expected, walk(size, 1L).stream().flatMap(List::stream).toList(), "page size " + size);
+		}
+	}
+
+	@Test
+	void withoutAuthorFilterOtherAuthorsAreIncluded() {
+		List<Long> all = walk(4, null).stream().flatMap(List::stream).toList();
+		assertEquals(10, all.size());
+		assertTrue(all.containsAll(expected));
+	}
+
+	@Test
+	void eachFilterCombinationOnlyAddsItsOwnPredicates() {
+		Long featured = save(2L, T0.plusHours(6));
+		Post post = postRepository.findById(featured).get();
+		post.setFeatured(true);
+		post.setCategory("java");
+		postRepository.save(post);
+
+		assertEquals(List.of(featured), ids(postRepository.findPublishedPage(null, "java", true, null, null, null, 10)));
+		assertEquals(List.of(featured), ids(postRepository.findPublishedPage((short) 1, "java", null, 2L, null, null, 10)));
+		assertTrue(postRepository.findPublishedPage((short) 1, "java", true, 1L, null, null, 10).isEmpty());
+		// drafts have status 0
+		assertEquals(expected.subList(5, 8), ids(postRepository.findUnpublishedPage((short) 0, null, null, 1L, null, 10)));
+		assertTrue(postRepository.findUnpublishedPage((short) 1, null, null, null, null, 10).isEmpty());
+	}
+
+	// follows the cursor the way PostServiceImpl.getPosts does
+	private List<List<Long>> walk(int size, Long authorId) {
+		List<List<Long>> pages = new ArrayList<>();
+		PostSummary last = null;
+		while (true) {
+			List<PostSummary> rows;
+			if (last != null && last.getPublishedAt() == null) {
+				rows = postRepository.findUnpublishedPage(null, null, null, authorId, last.getPostId(), size);
+			} else {
+				rows = new ArrayList<>(postRepository.findPublishedPage(null, null, null, authorId,
+						last != null ? last.getPublishedAt() : null, last != null ? last.getPostId() : null, size));
+				if (rows.size() < size) {
+					rows.addAll(postRepository.findUnpublishedPage(null, null, null, authorId, null, size - rows.size()));
+				}
+			}
+			if (rows.isEmpty()) {
+				return pages;
+			}
+			pages.add(ids(rows));
+			last = rows.get(rows.size() - 1);
+		}
+	}
+
+	private static List<Long> ids(List<PostSummary> rows) {
+		return rows.stream().map(PostSummary::getPostId).toList();
+	}
+
+	private Long save(Long authorId, OffsetDateTime publishedAt) {
+		Post post = new Post();
+		post.setAuthorId(authorId);
+		post.setTitle("Post");
+		post.setContent("Body");
+		post.setStatus((short) (publishedAt == null ? 0 : 1));
+		post.setCreatedAt(T0);
+		post.setPublishedAt(publishedAt);
+		return postRepository.save(post).getPostId();
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionTrieTest {
+
+	private static List<String> texts(List<CompletionTrie.Entry> entries) {
+		return entries.stream().map(CompletionTrie.Entry::getText).toList();
+	}
+
+	@Test
+	void completesByWeightAcrossSplitEdges() {
+		CompletionTrie trie = new CompletionTrie();
+		trie.insert("java basics", new CompletionTrie.Entry("post", 1L, "Java basics", 3));
+		trie.insert("javascript", new CompletionTrie.Entry("post", 2L, "JavaScript", 7));
+		trie.insert("jakarta ee", new CompletionTrie.Entry("post", 3L, "Jakarta EE", 5));
+
+		assertEquals(List.of("JavaScript", "Jakarta EE", "Java basics"), texts(trie.complete("ja", 10)));
+		assertEquals(List.of("JavaScript", "Java basics"), texts(trie.complete("jav", 10)));
+		assertEquals(List.of("Java basics"), texts(trie.complete("java ", 10)));
+		assertEquals(List.of("JavaScript"), texts(trie.complete("ja", 1)));
+		assertTrue(trie.complete("py", 10).isEmpty());
+		assertTrue(trie.complete("javaz", 10).isEmpty());
+	}
+
+	@Test
+	void entryUnderSeveralKeysIsReturnedOnce() {
+		CompletionTrie trie = new CompletionTrie();
+		CompletionTrie.Entry e = new CompletionTrie.Entry("post", 1L, "Spring spring", 1);
+		trie.insert("spring spring", e);
+		trie.insert("spring", e);
+
+		assertEquals(List.of("Spring spring"), texts(trie.complete("spr", 10)));
+	}
+
+	@Test
+	void removeUpdatesCachedTopAndPrunes() {
+		CompletionTrie trie = new CompletionTrie();
+		CompletionTrie.Entry heavy = new CompletionTrie.Entry("post", 1L, "test heavy", 9);
+		CompletionTrie.Entry light = new CompletionTrie.Entry("post", 2L, "test light", 1);
+		trie.insert("test heavy", heavy);
+		trie.insert("test light", light);
+
+		assertTrue(trie.remove("test heavy", heavy));
+		assertEquals(List.of("test light"), texts(trie.complete("t", 10)));
+		assertTrue(trie.complete("test h", 10).isEmpty());
+
+		// re-inserting after the chain was merged back still works
+		trie.insert("test heavy", heavy);
+		assertEquals(List.of("test heavy", "test light"), texts(trie.complete("test", 10)));
+		assertTrue(trie.remove("test light", light));
+		assertTrue(trie.remove("test heavy", heavy));
+		assertTrue(trie.complete("", 10).isEmpty());
+	}
+}
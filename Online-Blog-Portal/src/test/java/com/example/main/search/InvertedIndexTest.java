@@ -0,0 +1,136 @@
+package com.example.main.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+	private static List<Long> ids(InvertedIndex.Result result) {
+		return result.getHits().stream().map(InvertedIndex.Hit::getPostId).toList();
+	}
+
+	private static float[] scores(InvertedIndex.Result result) {
+		float[] s = new float[result.getHits().size()];
+		for (int i = 0; i < s.length; i++) {
+			s[i] = result.getHits().get(i).getScore();
+		}
+		return s;
+	}
+
+	@Test
+	void ranksByBm25WithTitleBoostAndLengthNormalisation() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1L, "Cooking", "spring onions and garlic, lots of other words to make this body long enough");
+		index.put(2L, "Spring Boot", "getting started");
+		index.put(3L, "Notes", "spring spring");
+		index.put(4L, "Unrelated", "nothing to see");
+
+		InvertedIndex.Result result = index.search("spring ", null, 0, 10);
+
+		// title match (boosted) beats two body matches, which beat one match in a long body
+		assertEquals(List.of(2L, 3L, 1L), ids(result));
+		assertEquals(3, result.getTotal());
+	}
+
+	@Test
+	void lastTermMatchesAsPrefixUnlessFollowedBySpace() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1L, "Spring", "");
+		index.put(2L, "Springfield", "");
+
+		assertEquals(List.of(1L, 2L), ids(index.search("spring", null, 0, 10)));
+		assertEquals(List.of(1L), ids(index.search("spring ", null, 0, 10)));
+	}
+
+	@Test
+	void scoreCursorPagesThroughTiesWithoutGapsOrRepeats() {
+		InvertedIndex index = new InvertedIndex();
+		for (long id = 1; id <= 25; id++) {
+			// identical documents tie on score, so the postId tie-break decides the order
+			index.put(id, "java", id % 5 == 0 ? "java" : "");
+		}
+
+		List<Long> seen = new ArrayList<>();
+		Float afterScore = null;
+		long afterId = 0;
+		while (true) {
+			InvertedIndex.Result page = index.search("java ", afterScore, afterId, 4);
+			if (page.getHits().isEmpty()) {
+				break;
+			}
+			assertEquals(25, page.getTotal());
+			seen.addAll(ids(page));
+			InvertedIndex.Hit last = page.getHits().get(page.getHits().size() - 1);
+			afterScore = last.getScore();
+			afterId = last.getPostId();
+		}
+
+		assertEquals(List.of(25L, 20L, 15L, 10L, 5L), seen.subList(0, 5));
+		assertEquals(25, seen.size());
+		assertEquals(25, seen.stream().distinct().count());
+		assertEquals(List.of(24L, 23L, 22L), seen.subList(5, 8));
+	}
+
+	@Test
+	void compactionRemapsOrdinalsWithoutChangingResults() {
+		InvertedIndex index = new InvertedIndex();
+		for (long id = 1; id <= 10; id++) {
+			index.put(id, "post " + id, "shared body");
+		}
+		index.put(3L, "post 3 edited", "shared body");
+		index.remove(4L);
+		index.remove(7L);
+		InvertedIndex.Result before = index.search("shared post ", null, 0, 20);
+		assertTrue(index.garbageRatio() > 0);
+
+		index.compact();
+
+		assertEquals(0.0, index.garbageRatio());
+		assertEquals(8, index.size());
+		InvertedIndex.Result after = index.search("shared post ", null, 0, 20);
+		assertEquals(ids(before), ids(after));
+		assertArrayEquals(scores(before), scores(after));
+		assertEquals(List.of(3L), ids(index.search("edited", null, 0, 20)));
+		assertFalse(index.contains(4L));
+
+		// ordinals allocated after compaction must not collide with the remapped ones
+		index.put(11L, "post 11", "shared body");
+		assertEquals(9, index.search("shared ", null, 0, 20).getTotal());
+		assertEquals(List.of(11L), ids(index.search("11 ", null, 0, 20)));
+	}
+
+	@Test
+	void segmentRoundTripsThroughVarintEncoding(@TempDir Path dir) throws IOException {
+		InvertedIndex index = new InvertedIndex();
+		// enough documents and repeats that ordinal deltas and term frequencies need multi-byte varints
+		for (long id = 1; id <= 300; id++) {
+			index.put(id * 1_000_003L, "title " + id, id % 100 == 0 ? "word ".repeat(200) : "body " + (id % 7));
+		}
+		index.remove(5 * 1_000_003L);
+		index.put(6 * 1_000_003L, "rewritten", "body");
+		Path segment = dir.resolve("posts.seg");
+
+		index.writeTo(segment);
+		InvertedIndex read = InvertedIndex.readFrom(segment);
+
+		assertEquals(index.size(), read.size());
+		for (String query : List.of("word ", "body ", "title 42 ", "rewritten ", "ti")) {
+			InvertedIndex.Result expected = index.search(query, null, 0, 50);
+			InvertedIndex.Result actual = read.search(query, null, 0, 50);
+			assertEquals(expected.getTotal(), actual.getTotal(), query);
+			assertEquals(ids(expected), ids(actual), query);
+			assertArrayEquals(scores(expected), scores(actual), query);
+		}
+		assertFalse(read.contains(5 * 1_000_003L));
+	}
+}
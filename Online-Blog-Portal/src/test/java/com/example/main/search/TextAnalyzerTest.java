@@ -0,0 +1,34 @@
+package com.example.main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextAnalyzerTest {
+
+	@Test
+	void foldsAccentsAndCase() {
+		assertEquals(List.of("viet", "nam"), TextAnalyzer.analyze("Việt Nam"));
+		assertEquals(List.of("viet", "nam"), TextAnalyzer.analyze("VIET NAM"));
+		assertEquals(List.of("da", "nang"), TextAnalyzer.analyze("Đà Nẵng"));
+		assertEquals(List.of("cafe", "creme"), TextAnalyzer.analyze("Café CRÈME"));
+	}
+
+	@Test
+	void stripsMarkupAndSplitsOnNonAlphanumerics() {
+		assertEquals(List.of("hello", "world", "x2"), TextAnalyzer.analyze("<p>Hello,&nbsp;<b>world</b>!</p> x2"));
+		assertEquals(List.of("ok"), TextAnalyzer.analyze("a".repeat(TextAnalyzer.MAX_TOKEN_LENGTH + 1) + " ok"));
+		assertTrue(TextAnalyzer.analyze(null).isEmpty());
+	}
+
+	@Test
+	void lastTermIsPrefixUntilWhitespace() {
+		assertTrue(TextAnalyzer.lastTermIsPrefix("spr"));
+		assertFalse(TextAnalyzer.lastTermIsPrefix("spring "));
+		assertFalse(TextAnalyzer.lastTermIsPrefix(""));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.CommentRequest;
+import com.example.main.dto.PostRequest;
+import com.example.main.dto.UserRequest;
+import com.example.main.entity.User;
+import com.example.main.repository.PostRepository;
+import com.example.main.service.PostService;
+import com.example.main.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CommentServiceImplTest {
+
+	@Autowired
+	private CommentServiceImpl commentService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void reconcileRepairsDriftedCommentCounts() throws Exception {
+		String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+		UserRequest u = new UserRequest();
+		u.setUsername(name);
+		u.setEmail(name + "@example.com");
+		u.setPasswordHash("secret");
+		u.setDisplayName("Author");
+		User user = userService.createUser(u);
+
+		PostRequest p = new PostRequest();
+		p.setAuthorId(user.getUserId());
+		p.setTitle("Post");
+		p.setContent("Body");
+		p.setStatus((short) 1);
+		Long postId = postService.createPost(p, null).getPostId();
+		for (int i = 0; i < 2; i++) {
+			CommentRequest c = new CommentRequest();
+			c.setPostId(postId);
+			c.setUserId(user.getUserId());
+			c.setContent("Comment " + i);
+			commentService.createComment(c);
+		}
+		jdbcTemplate.update("UPDATE posts SET comment_count = 7 WHERE post_id = ?", postId);
+
+		commentService.reconcileCommentCounts();
+
+		assertEquals(2, jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE post_id = ?", Integer.class,
+				postId));
+	}
+
+	@Test
+	void recountRefusesToRunWithoutTheLockingTransaction() {
+		// on its own the UPDATE would count from a snapshot taken before any lock wait
+		assertThrows(IllegalTransactionStateException.class, () -> postRepository.reconcileCommentCounts(1L, 10L));
+		assertThrows(IllegalTransactionStateException.class, () -> postRepository.lockRange(1L, 10L));
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.CommentNode;
+import com.example.main.dto.CommentResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommentTreeBuilderTest {
+
+	private static CommentResponse row(long id, Long parentId) {
+		return new CommentResponse(id, 1L, 1L, parentId, "c" + id, OffsetDateTime.now());
+	}
+
+	// direct reply counts as the thread query reports them
+	private static int[] counts(List<CommentResponse> rows) {
+		int[] counts = new int[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			for (CommentResponse r : rows) {
+				if (rows.get(i).getId().equals(r.getParentId())) {
+					counts[i]++;
+				}
+			}
+		}
+		return counts;
+	}
+
+	@Test
+	void buildsNestedThreadInCreationOrder() {
+		List<CommentResponse> rows = List.of(row(1, null), row(2, 1L), row(3, null), row(4, 2L), row(5, 1L));
+
+		List<CommentNode> roots = CommentTreeBuilder.build(rows, counts(rows), 10, 10);
+
+		assertEquals(2, roots.size());
+		CommentNode first = roots.get(0);
+		assertEquals(1L, first.getId());
+		assertEquals(List.of(2L, 5L), first.getReplies().stream().map(CommentNode::getId).toList());
+		assertEquals(4L, first.getReplies().get(0).getReplies().get(0).getId());
+		assertEquals(3L, roots.get(1).getId());
+	}
+
+	@Test
+	void appliesDepthAndPerLevelLimits() {
+		List<CommentResponse> rows = new ArrayList<>();
+		rows.add(row(1, null));
+		for (long id = 2; id <= 6; id++) {
+			rows.add(row(id, 1L));
+		}
+		rows.add(row(7, 2L));
+
+		List<CommentNode> roots = CommentTreeBuilder.build(rows, counts(rows), 2, 3);
+
+		CommentNode root = roots.get(0);
+		assertEquals(5, root.getReplyCount());
+		assertEquals(3, root.getReplies().size());
+		// depth 2 reached: the reply still reports its children but does not include them
+		assertEquals(1, root.getReplies().get(0).getReplyCount());
+		assertTrue(root.getReplies().get(0).getReplies().isEmpty());
+	}
+
+	@Test
+	void reportsRepliesBeyondTheFetchedDepth() {
+		// the query stopped at depth 1: row 1 has two replies that were not fetched
+		List<CommentNode> roots = CommentTreeBuilder.build(List.of(row(1, null)), new int[] { 2 }, 1, 10);
+
+		assertEquals(2, roots.get(0).getReplyCount());
+		assertTrue(roots.get(0).getReplies().isEmpty());
+	}
+
+	@Test
+	void keepsRepliesWithMissingParentAtTopLevel() {
+		List<CommentResponse> rows = List.of(row(10, 99L), row(11, 10L));
+		List<CommentNode> roots = CommentTreeBuilder.build(rows, counts(rows), 5, 5);
+
+		assertEquals(1, roots.size());
+		assertEquals(11L, roots.get(0).getReplies().get(0).getId());
+	}
+
+	@Test
+	void mapHandlesCollisionsAndMisses() {
+		CommentTreeBuilder.LongIntMap map = new CommentTreeBuilder.LongIntMap(1000);
+		for (int i = 0; i < 1000; i++) {
+			map.put(i * 1024L + 1, i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, map.get(i * 1024L + 1));
+		}
+		assertEquals(-1, map.get(7L));
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.StoredFile;
+import com.example.main.repository.PostImageRepository;
+import com.example.main.repository.PostImageVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContentAddressedFileStorageServiceTest {
+
+	@TempDir
+	Path root;
+
+	private final PostImageRepository postImageRepository = mock(PostImageRepository.class);
+	private final PostImageVariantRepository variantRepository = mock(PostImageVariantRepository.class);
+	private ContentAddressedFileStorageService storage;
+
+	@BeforeEach
+	void setUp() {
+		storage = new ContentAddressedFileStorageService(root);
+		ReflectionTestUtils.setField(storage, "postImageRepository", postImageRepository);
+		ReflectionTestUtils.setField(storage, "variantRepository", variantRepository);
+		when(postImageRepository.findReferencedUrls(anyList())).thenReturn(List.of());
+		when(variantRepository.findReferencedUrls(anyList())).thenReturn(List.of());
+	}
+
+	private StoredFile store(String body, String name) throws IOException {
+		return storage.store(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), name);
+	}
+
+	private Path blob(StoredFile f) {
+		return root.resolve(f.getUrl().substring("/uploads/".length()));
+	}
+
+	private static void age(Path p, Duration by) throws IOException {
+		Files.setLastModifiedTime(p, FileTime.from(Instant.now().minus(by)));
+	}
+
+	private long blobCount() throws IOException {
+		try (Stream<Path> files = Files.walk(root.resolve("cas"))) {
+			return files.filter(Files::isRegularFile).count();
+		}
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws IOException {
+		StoredFile a = store("same bytes", "a.JPG");
+		StoredFile b = store("same bytes", "b.jpg");
+		StoredFile c = store("other bytes", "c.jpg");
+
+		assertEquals(a.getUrl(), b.getUrl());
+		assertTrue(a.getUrl().matches("/uploads/cas/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg"), a.getUrl());
+		assertEquals(a.getSha256().substring(0, 2), a.getUrl().split("/")[3]);
+		assertFalse(a.getUrl().equals(c.getUrl()));
+		assertEquals(2, blobCount());
+		try (Stream<Path> leftovers = Files.list(root)) {
+			assertEquals(List.of(root.resolve("cas")), leftovers.toList()); // no temp files left behind
+		}
+	}
+
+	@Test
+	void releaseDeletesOnlyUnreferencedBlobsPastTheGracePeriod() throws IOException {
+		StoredFile f = store("shared", "x.png");
+		Path blob = blob(f);
+		age(blob, Duration.ofHours(1));
+
+		when(postImageRepository.countByImageUrl(f.getUrl())).thenReturn(1L);
+		storage.release(f.getUrl());
+		assertTrue(Files.exists(blob), "still referenced by a post image");
+
+		when(postImageRepository.countByImageUrl(f.getUrl())).thenReturn(0L);
+		when(variantRepository.countByImageUrl(f.getUrl())).thenReturn(1L);
+		storage.release(f.getUrl());
+		assertTrue(Files.exists(blob), "still referenced by a variant");
+
+		when(variantRepository.countByImageUrl(f.getUrl())).thenReturn(0L);
+		storage.release(f.getUrl());
+		assertFalse(Files.exists(blob));
+	}
+
+	@Test
+	void freshBlobsSurviveReleaseUntilTheGracePeriodEnds() throws IOException {
+		StoredFile f = store("being saved", "x.png");
+		when(postImageRepository.countByImageUrl(anyString())).thenReturn(0L);
+		when(variantRepository.countByImageUrl(anyString())).thenReturn(0L);
+
+		storage.release(f.getUrl());
+		assertTrue(Files.exists(blob(f)), "row of the post being saved may not be committed yet");
+
+		age(blob(f), Duration.ofMinutes(11));
+		storage.release(f.getUrl());
+		assertFalse(Files.exists(blob(f)));
+	}
+
+	@Test
+	void duplicateStoreRacingAReleaseKeepsTheBlob() throws IOException {
+		StoredFile f = store("reused", "x.png");
+		age(blob(f), Duration.ofHours(1));
+		// the release counts no references, then a new post uploads the same bytes before it deletes
+		when(postImageRepository.countByImageUrl(f.getUrl())).thenAnswer(call -> {
+			assertEquals(f.getUrl(), store("reused", "y.png").getUrl());
+			return 0L;
+		});
+		when(variantRepository.countByImageUrl(f.getUrl())).thenReturn(0L);
+
+		storage.release(f.getUrl());
+
+		assertTrue(Files.exists(blob(f)));
+	}
+
+	@Test
+	void releaseIgnoresUrlsOutsideTheStore() throws IOException {
+		Path outside = Files.writeString(root.resolve("keep.txt"), "x");
+		age(outside, Duration.ofHours(1));
+		when(postImageRepository.countByImageUrl(anyString())).thenReturn(0L);
+
+		storage.release("/uploads/cas/../keep.txt");
+		storage.release("/uploads/keep.txt");
+		storage.release(null);
+
+		assertTrue(Files.exists(outside));
+	}
+
+	@Test
+	void sweepRemovesOldUnreferencedBlobsOnly() throws IOException {
+		StoredFile referenced = store("in a post", "a.png");
+		StoredFile variant = store("a variant", "b.png");
+		StoredFile orphan = store("orphan", "c.png");
+		StoredFile young = store("just uploaded", "d.png");
+		for (StoredFile f : List.of(referenced, variant, orphan)) {
+			age(blob(f), Duration.ofHours(1));
+		}
+		when(postImageRepository.findReferencedUrls(anyList())).thenReturn(List.of(referenced.getUrl()));
+		when(variantRepository.findReferencedUrls(anyList())).thenReturn(List.of(variant.getUrl()));
+
+		storage.sweepOrphans();
+
+		assertTrue(Files.exists(blob(referenced)));
+		assertTrue(Files.exists(blob(variant)));
+		assertTrue(Files.exists(blob(young)));
+		assertFalse(Files.exists(blob(orphan)));
+		assertEquals(3, blobCount());
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.main.service.impl;
+
+import com.example.main.entity.Post;
+import com.example.main.event.PostChangedEvent;
+import com.example.main.repository.PostRepository;
+import com.example.main.search.InvertedIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemorySearchServiceTest {
+
+	private final PostRepository postRepository = mock(PostRepository.class);
+	private final InMemorySearchService service = new InMemorySearchService();
+
+	@TempDir
+	Path indexDir;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "postRepository", postRepository);
+		ReflectionTestUtils.setField(service, "indexDir", indexDir.toString());
+	}
+
+	private static Post post(long id, String title) {
+		Post post = new Post();
+		post.setPostId(id);
+		post.setTitle(title);
+		post.setContent("");
+		post.setStatus((short) 1);
+		return post;
+	}
+
+	private InvertedIndex index() {
+		return (InvertedIndex) ReflectionTestUtils.getField(service, "index");
+	}
+
+	private List<Long> hits(String query) {
+		return index().search(query, null, 0, 10).getHits().stream().map(InvertedIndex.Hit::getPostId).toList();
+	}
+
+	@Test
+	void changesDuringARebuildWinOverRowsItReadBeforeThem() {
+		when(postRepository.findPublishedBatch(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+			if ((Long) call.getArgument(0) > 0) {
+				return List.of();
+			}
+			// committed while the batch was in flight: the rows below predate both
+			service.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.UPDATED, 1L, post(1, "fresh")));
+			service.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.DELETED, 2L, null));
+			return List.of(post(1, "stale"), post(2, "deleted"));
+		});
+
+		service.load();
+
+		assertEquals(List.of(1L), hits("fresh "));
+		assertTrue(hits("stale ").isEmpty());
+		assertFalse(index().contains(2L));
+	}
+
+	@Test
+	void eventStraddlingTheIndexSwapReachesTheNewIndex() throws Exception {
+		CountDownLatch batchStarted = new CountDownLatch(1);
+		CountDownLatch releaseBatch = new CountDownLatch(1);
+		CountDownLatch eventStarted = new CountDownLatch(1);
+		CountDownLatch releaseEvent = new CountDownLatch(1);
+		when(postRepository.findPublishedBatch(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+			if ((Long) call.getArgument(0) > 0) {
+				return List.of();
+			}
+			batchStarted.countDown();
+			releaseBatch.await();
+			return List.of(post(1, "stale"));
+		});
+		// pauses the event after it has picked the index to apply to, before it applies
+		AtomicBoolean first = new AtomicBoolean(true);
+		Post fresh = new Post() {
+			@Override
+			public String getContent() {
+				if (first.getAndSet(false)) {
+					eventStarted.countDown();
+					try {
+						releaseEvent.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return "";
+			}
+		};
+		fresh.setPostId(1L);
+		fresh.setTitle("fresh");
+		fresh.setStatus((short) 1);
+
+		Thread rebuild = new Thread(service::load);
+		rebuild.start();
+		batchStarted.await();
+		Thread event = new Thread(
+				() -> service.onPostChanged(new PostChangedEvent(PostChangedEvent.Type.UPDATED, 1L, fresh)));
+		event.start();
+		eventStarted.await();
+
+		// let the rebuild run to completion if it can, swap included, while the event is mid-way
+		releaseBatch.countDown();
+		rebuild.join(500);
+		releaseEvent.countDown();
+		event.join();
+		rebuild.join();
+
+		assertEquals(List.of(1L), hits("fresh "));
+		assertTrue(hits("stale ").isEmpty());
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.StoredFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileStorageServiceTest {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void sameNameStoredConcurrentlyGetsSeparateFiles() throws Exception {
+		LocalFileStorageService storage = new LocalFileStorageService(root);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<StoredFile>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				byte[] body = ("variant " + i).getBytes(StandardCharsets.UTF_8);
+				futures.add(pool.submit(() -> storage.store(new ByteArrayInputStream(body), "thumb.jpg")));
+			}
+			Set<String> urls = new HashSet<>();
+			for (int i = 0; i < futures.size(); i++) {
+				StoredFile stored = futures.get(i).get();
+				assertTrue(stored.getUrl().endsWith(".jpg"), stored.getUrl());
+				assertTrue(urls.add(stored.getUrl()), "duplicate " + stored.getUrl());
+				assertArrayEquals(("variant " + i).getBytes(StandardCharsets.UTF_8), read(storage, stored.getUrl()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void releasingOneFileLeavesOthersAlone() throws IOException {
+		LocalFileStorageService storage = new LocalFileStorageService(root);
+		StoredFile a = storage.store(new ByteArrayInputStream(new byte[] { 1 }), "thumb.jpg");
+		StoredFile b = storage.store(new ByteArrayInputStream(new byte[] { 2 }), "thumb.jpg");
+
+		storage.release(a.getUrl());
+		assertThrows(IOException.class, () -> storage.open(a.getUrl()));
+		assertArrayEquals(new byte[] { 2 }, read(storage, b.getUrl()));
+	}
+
+	@Test
+	void clientFileNameNeverReachesThePath() throws IOException {
+		LocalFileStorageService storage = new LocalFileStorageService(root);
+		StoredFile stored = storage.store(new ByteArrayInputStream(new byte[] { 1 }), "../../etc/passwd");
+		assertEquals(-1, stored.getUrl().indexOf(".."));
+		assertTrue(stored.getUrl().startsWith("/uploads/"));
+	}
+
+	private static byte[] read(LocalFileStorageService storage, String url) throws IOException {
+		try (InputStream in = storage.open(url)) {
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.SearchHit;
+import com.example.main.dto.SearchResponse;
+import com.example.main.entity.Post;
+import com.example.main.repository.PostRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the native search queries behind search.mode=postgres (ranking, rank cursor, match count,
+ * ts_headline snippet and the row mapping) against a real PostgreSQL. H2 has no tsvector, so this
+ * is skipped unless {@code it.pg.url} is set; tables go into a throwaway schema, e.g.
+ *
+ * mvn test -Dtest=PostgresSearchServiceTest -Dit.pg.url=jdbc:postgresql://localhost:5432/postgres
+ * -Dit.pg.user=postgres -Dit.pg.password=123456
+ *
+ * The user needs to be able to create schemas and, on first run, the unaccent extension.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresSearchService.class)
+@EnabledIfSystemProperty(named = "it.pg.url", matches = ".+")
+class PostgresSearchServiceTest {
+
+	private static final String SCHEMA = "search_it_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+	private static final OffsetDateTime T0 = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+	@Autowired
+	private PostgresSearchService searchService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void postgres(DynamicPropertyRegistry registry) {
+		String url = System.getProperty("it.pg.url");
+		registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public");
+		registry.add("spring.datasource.username", () -> System.getProperty("it.pg.user", "postgres"));
+		registry.add("spring.datasource.password", () -> System.getProperty("it.pg.password", ""));
+		registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+		registry.add("spring.jpa.properties.hibernate.default_schema", () -> SCHEMA);
+		registry.add("search.mode", () -> "postgres");
+	}
+
+	@BeforeAll
+	static void createSchema() throws SQLException {
+		// the SEARCH section of database.txt, idempotent; the text search config lives in public
+		execute("CREATE EXTENSION IF NOT EXISTS unaccent",
+				"DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'blog_search') THEN"
+						+ " CREATE TEXT SEARCH CONFIGURATION public.blog_search (COPY = pg_catalog.simple);"
+						+ " ALTER TEXT SEARCH CONFIGURATION public.blog_search"
+						+ " ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple; END IF; END $$",
+				"CREATE SCHEMA " + SCHEMA);
+	}
+
+	@AfterAll
+	static void dropSchema() throws SQLException {
+		execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+	}
+
+	private static void execute(String... sql) throws SQLException {
+		try (Connection c = DriverManager.getConnection(System.getProperty("it.pg.url"),
+				System.getProperty("it.pg.user", "postgres"), System.getProperty("it.pg.password", ""));
+				Statement st = c.createStatement()) {
+			for (String s : sql) {
+				st.execute(s);
+			}
+		}
+	}
+
+	@BeforeEach
+	void addSearchVector() {
+		// Hibernate does not know the generated column; rolled back with each test
+		jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS"
+				+ " (setweight(to_tsvector('public.blog_search'::regconfig, title), 'A')"
+				+ " || setweight(to_tsvector('public.blog_search'::regconfig, content), 'B')) STORED");
+	}
+
+	@Test
+	void titleMatchesOutrankBodyMatchesAndEveryColumnIsMapped() {
+		Long body = save("Weekend notes", "Trying Java records on a small service", (short) 1, "Notes");
+		Long title = save("Java tuning", "Heap sizing and GC logs", (short) 1, "Backend");
+		save("Java draft", "Not published yet", (short) 0, "Backend");
+		save("Travel", "Đà Nẵng in spring", (short) 1, "Life");
+
+		SearchResponse response = searchService.search("java ", null, 10);
+
+		assertEquals(2, response.getTotal());
+		assertEquals(List.of(title, body), ids(response.getItems()));
+		assertNull(response.getNextCursor());
+
+		SearchHit top = response.getItems().get(0);
+		assertEquals(7L, top.getAuthorId());
+		assertEquals("Java tuning", top.getTitle());
+		assertEquals("Backend", top.getCategory());
+		assertEquals((short) 1, top.getStatus());
+		assertEquals(Boolean.FALSE, top.getFeatured());
+		assertNotNull(top.getCreatedAt());
+		assertEquals(T0.toInstant(), top.getPublishedAt().toInstant());
+		assertEquals("Heap sizing and GC logs", top.getExcerpt());
+		assertEquals(0, top.getCommentCount());
+		assertTrue(top.getScore() > response.getItems().get(1).getScore());
+
+		// ts_headline marks the match in the body
+		assertTrue(response.getItems().get(1).getSnippet().contains("<mark>Java</mark>"),
+				response.getItems().get(1).getSnippet());
+	}
+
+	@Test
+	void foldsAccentsAndMatchesTheLastTermAsPrefix() {
+		Long travel = save("Travel", "Đà Nẵng in spring", (short) 1, "Life");
+		save("Other", "Danube cruise", (short) 1, "Life");
+
+		assertEquals(List.of(travel), ids(searchService.search("nang", null, 10).getItems()));
+		assertEquals(2, searchService.search("da", null, 10).getTotal());
+		assertEquals(List.of(travel), ids(searchService.search("da ", null, 10).getItems()));
+	}
+
+	@Test
+	void rankCursorWalksTiesByPostIdWithoutGapsOrRepeats() {
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			expected.add(0, save("Spring " + i, "same body", (short) 1, "Backend"));
+		}
+		Long best = save("Spring spring", "spring", (short) 1, "Backend");
+		expected.add(0, best);
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			SearchResponse page = searchService.search("spring ", cursor, 3);
+			assertEquals(pages == 0 ? Integer.valueOf(8) : null, page.getTotal());
+			seen.addAll(ids(page.getItems()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(expected, seen);
+		assertEquals(8, postRepository.countSearchMatches("spring"));
+	}
+
+	private Long save(String title, String content, short status, String category) {
+		Post post = new Post();
+		post.setAuthorId(7L);
+		post.setTitle(title);
+		post.setContent(content);
+		post.setStatus(status);
+		post.setCategory(category);
+		post.setFeatured(false);
+		post.setPublishedAt(status == 1 ? T0 : null);
+		return postRepository.saveAndFlush(post).getPostId();
+	}
+
+	private static List<Long> ids(List<SearchHit> hits) {
+		return hits.stream().map(SearchHit::getPostId).toList();
+	}
+}
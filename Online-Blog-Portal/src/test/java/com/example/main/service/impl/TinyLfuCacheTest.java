@@ -0,0 +1,103 @@
+package com.example.main.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+
+	@Test
+	void hotEntriesSurviveAScanOfOneHitWonders() {
+		TinyLfuCache<Long, String> cache = new TinyLfuCache<>(100, 100, 0, v -> 1);
+		for (long id = 0; id < 50; id++) {
+			cache.put(id, "hot" + id);
+		}
+		for (int round = 0; round < 5; round++) {
+			for (long id = 0; id < 50; id++) {
+				assertNotNull(cache.get(id));
+			}
+		}
+
+		for (long id = 1000; id < 1500; id++) {
+			cache.get(id);
+			cache.put(id, "cold" + id);
+		}
+
+		for (long id = 0; id < 50; id++) {
+			assertEquals("hot" + id, cache.get(id));
+		}
+		assertTrue(cache.size() <= 100);
+	}
+
+	@Test
+	void weightBoundIsHonouredAndOversizedValuesAreRejected() {
+		TinyLfuCache<Long, String> cache = new TinyLfuCache<>(1000, 16, 0, String::length);
+		cache.put(1L, "x".repeat(2000));
+		assertNull(cache.get(1L));
+
+		for (long id = 0; id < 100; id++) {
+			cache.put(id, "y".repeat(60));
+		}
+		assertTrue((long) cache.stats().get("weightedSize") <= 1000);
+		assertTrue((long) cache.stats().get("evictions") > 0);
+	}
+
+	@Test
+	void losingCandidateEvictsNothing() {
+		TinyLfuCache<Long, String> cache = new TinyLfuCache<>(1000, 16, 0, String::length);
+		cache.put(1L, "a".repeat(400));
+		cache.put(2L, "b".repeat(500));
+		for (int i = 0; i < 5; i++) {
+			cache.get(2L);
+		}
+
+		// needs both residents' room; it beats the cold one but not the hot one
+		cache.get(3L);
+		cache.get(3L);
+		cache.put(3L, "c".repeat(600));
+
+		assertEquals(1.0, cache.stat("admissionRejections"));
+		assertEquals(1.0, cache.stat("evictions"));
+		assertEquals(900.0, cache.stat("weightedSize"));
+		assertNotNull(cache.get(1L));
+		assertNotNull(cache.get(2L));
+		assertNull(cache.get(3L));
+	}
+
+	@Test
+	void winningCandidateEvictsOnlyWhatItNeeds() {
+		TinyLfuCache<Long, String> cache = new TinyLfuCache<>(1000, 16, 0, String::length);
+		cache.put(1L, "a".repeat(300));
+		cache.put(2L, "b".repeat(300));
+		cache.put(4L, "d".repeat(300));
+		for (int i = 0; i < 3; i++) {
+			cache.get(3L);
+		}
+		cache.put(3L, "c".repeat(400));
+
+		// 1 and 2 were the least recently used; 4 still fits beside the newcomer
+		assertEquals(2.0, cache.stat("evictions"));
+		assertEquals(0.0, cache.stat("admissionRejections"));
+		assertEquals(700.0, cache.stat("weightedSize"));
+		assertNotNull(cache.get(3L));
+		assertNotNull(cache.get(4L));
+	}
+
+	@Test
+	void invalidValueIsAMissAndIsDropped() {
+		TinyLfuCache<Long, String> cache = new TinyLfuCache<>(100, 16, 0, v -> 1);
+		cache.put(1L, "v1");
+		assertNull(cache.get(1L, "v2"::equals));
+		assertNull(cache.get(1L));
+		assertEquals(2L, cache.stats().get("misses"));
+
+		cache.put(1L, "v2");
+		cache.update(1L, v -> v + "!");
+		assertEquals("v2!", cache.get(1L));
+		cache.invalidate(1L);
+		assertNull(cache.get(1L));
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.main.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrendingBoardTest {
+
+	private static final long HOUR = 3600;
+
+	@Test
+	void recentActivityOutranksOlderActivityOfSameSize() {
+		TrendingBoard board = new TrendingBoard(10, 24 * HOUR, 0);
+		board.add(1, 10, 0);
+		board.add(2, 10, 48 * HOUR);
+		// two half-lives later 6 units beat the old 10 (worth 2.5 now)
+		board.add(3, 6, 48 * HOUR);
+
+		assertEquals(List.of(2L, 3L, 1L), board.top(10));
+		assertEquals(List.of(2L), board.top(1));
+	}
+
+	@Test
+	void fullBoardEvictsLowestAndNewcomerRanksByKnownActivity() {
+		TrendingBoard board = new TrendingBoard(2, 24 * HOUR, 0);
+		board.add(1, 5, 0);
+		board.add(2, 3, 0);
+		board.add(3, 1, 0); // evicts 2 and inherits its 3 as error
+
+		assertEquals(2, board.size());
+		assertEquals(List.of(1L, 3L), board.top(10));
+		assertEquals(1.0, board.score(3), 1e-9);
+	}
+
+	@Test
+	void landmarkRescaleKeepsOrder() {
+		TrendingBoard board = new TrendingBoard(10, HOUR, 0);
+		board.add(1, 1, 0);
+		board.add(2, 2, 0);
+		// far beyond the rescale threshold
+		board.add(3, 1, 100 * HOUR);
+		board.add(1, 1.5, 100 * HOUR);
+
+		assertEquals(List.of(1L, 3L, 2L), board.top(10));
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.Suggestion;
+import com.example.main.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TypeaheadServiceImplTest {
+
+	private final PostRepository postRepository = mock(PostRepository.class);
+	private final TypeaheadServiceImpl service = new TypeaheadServiceImpl();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "postRepository", postRepository);
+		when(postRepository.findPublishedTitles()).thenReturn(List.of(
+				new Object[] { 1L, "Spring Boot tips", "java", false, 3 },
+				new Object[] { 2L, "JavaScript closures", "web", true, 0 },
+				new Object[] { 3L, "Java streams", "java", false, 1 }));
+		service.rebuild();
+	}
+
+	@Test
+	void inputThatAnalyzesToNothingSuggestsNothing() {
+		assertTrue(service.suggest("!!!", 8).isEmpty());
+		assertTrue(service.suggest("  -- ", 8).isEmpty());
+		assertTrue(service.suggest("?", null).isEmpty());
+	}
+
+	@Test
+	void wordPrefixesStillComplete() {
+		List<Suggestion> boot = service.suggest("boo", 8);
+		assertEquals(1, boot.size());
+		assertEquals(1L, boot.get(0).getPostId());
+
+		// "java " is a finished word: the Java title, not the JavaScript one
+		List<Suggestion> java = service.suggest("java ", 8);
+		assertEquals(1, java.size());
+		assertEquals(3L, java.get(0).getPostId());
+	}
+}
@@ -0,0 +1,199 @@
+package com.example.main.service.impl;
+
+import com.example.main.dto.PostRequest;
+import com.example.main.dto.UserRequest;
+import com.example.main.entity.User;
+import com.example.main.event.PostViewsFlushedEvent;
+import com.example.main.service.PostService;
+import com.example.main.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ViewCounterServiceImplTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// flushed deltas as announced to PostDetailCache and the trending board
+	private final Map<Long, Long> published = new ConcurrentHashMap<>();
+
+	private Long authorId;
+	// already has a post_view_counts row (UPDATE path)
+	private Long counted;
+	// has none yet (INSERT path)
+	private Long fresh;
+
+	@BeforeEach
+	void seed() throws Exception {
+		String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+		UserRequest u = new UserRequest();
+		u.setUsername(name);
+		u.setEmail(name + "@example.com");
+		u.setPasswordHash("secret");
+		u.setDisplayName("Author");
+		User user = userService.createUser(u);
+		authorId = user.getUserId();
+
+		counted = createPost();
+		fresh = createPost();
+		jdbcTemplate.update("INSERT INTO post_view_counts (post_id, views, updated_at) VALUES (?, 10, ?)", counted,
+				OffsetDateTime.now());
+	}
+
+	@Test
+	void viewsRecordedDuringAFlushAreCountedOnceAndWrittenByTheNext() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		ViewCounterServiceImpl counter = counter(new JdbcTemplate(dataSource) {
+			@Override
+			public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+					ParameterizedPreparedStatementSetter<T> pss) {
+				if (writing.getCount() > 0) {
+					writing.countDown();
+					await(resume);
+				}
+				return super.batchUpdate(sql, batchArgs, batchSize, pss);
+			}
+		});
+		views(counter, counted, 3);
+		views(counter, fresh, 2);
+
+		Thread flusher = new Thread(counter::flush);
+		flusher.start();
+		assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+		// the first deltas are in flight, these land in fresh adders
+		views(counter, counted, 4);
+		views(counter, fresh, 1);
+		assertEquals(17, counter.currentCount(counted, 10L));
+		assertEquals(3, counter.currentCount(fresh, null));
+
+		resume.countDown();
+		flusher.join(10_000);
+		assertEquals(13, stored(counted));
+		assertEquals(2, stored(fresh));
+		assertEquals(17, counter.currentCount(counted, 13L));
+		assertEquals(3, counter.currentCount(fresh, 2L));
+
+		counter.flush();
+		assertEquals(17, stored(counted));
+		assertEquals(3, stored(fresh));
+		assertEquals(17, counter.currentCount(counted, 17L));
+		assertEquals(Map.of(counted, 7L, fresh, 3L), published);
+	}
+
+	@Test
+	void concurrentViewsAndFlushesLoseNothing() throws Exception {
+		ViewCounterServiceImpl counter = counter(new JdbcTemplate(dataSource));
+		Long[] posts = { counted, fresh, createPost() };
+		int threads = 4;
+		int perThread = 3_000;
+
+		AtomicBoolean done = new AtomicBoolean();
+		Thread flusher = new Thread(() -> {
+			while (!done.get()) {
+				counter.flush();
+			}
+		});
+		flusher.start();
+
+		List<Thread> viewers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread viewer = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					counter.recordView(posts[i % posts.length]);
+				}
+			});
+			viewers.add(viewer);
+			viewer.start();
+		}
+		for (Thread viewer : viewers) {
+			viewer.join(30_000);
+		}
+		done.set(true);
+		flusher.join(30_000);
+		counter.flush();
+
+		long each = (long) threads * perThread / posts.length;
+		assertEquals(10 + each, stored(posts[0]));
+		assertEquals(each, stored(posts[1]));
+		assertEquals(each, stored(posts[2]));
+		for (Long postId : posts) {
+			assertEquals(each, published.get(postId));
+			assertEquals(stored(postId), counter.currentCount(postId, stored(postId)));
+		}
+	}
+
+	private ViewCounterServiceImpl counter(JdbcTemplate jdbc) {
+		ViewCounterServiceImpl counter = new ViewCounterServiceImpl(transactionManager);
+		ReflectionTestUtils.setField(counter, "jdbcTemplate", jdbc);
+		ApplicationEventPublisher events = e -> ((PostViewsFlushedEvent) e).getViews()
+				.forEach((id, delta) -> published.merge(id, delta, Long::sum));
+		ReflectionTestUtils.setField(counter, "eventPublisher", events);
+		return counter;
+	}
+
+	private Long createPost() throws Exception {
+		PostRequest p = new PostRequest();
+		p.setAuthorId(authorId);
+		p.setTitle("Post");
+		p.setContent("Body");
+		p.setStatus((short) 1);
+		return postService.createPost(p, null).getPostId();
+	}
+
+	private long stored(Long postId) {
+		return jdbcTemplate.queryForObject("SELECT views FROM post_view_counts WHERE post_id = ?", Long.class, postId);
+	}
+
+	private static void views(ViewCounterServiceImpl counter, Long postId, int n) {
+		for (int i = 0; i < n; i++) {
+			counter.recordView(postId);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.main.support;
+
+import com.example.main.config.SqlStatementCounter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Query-budget assertions for integration tests, on top of {@link SqlStatementCounter}.
+ *
+ * <pre>
+ * mockMvc.perform(get("/api/posts/{id}", id)).andExpect(QueryBudget.atMost(3));
+ *
+ * List&lt;Comment&gt; tree = QueryBudget.atMost(2, () -&gt; commentService.getCommentsByPost(id));
+ * </pre>
+ */
+public final class QueryBudget {
+
+	private QueryBudget() {
+	}
+
+	/** Fails the MockMvc request if it issued more than {@code max} SQL statements. */
+	public static ResultMatcher atMost(int max) {
+		return result -> {
+			Object count = result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE);
+			assertNotNull(count, "No SQL statement count on the request; is RequestMetricsFilter registered?");
+			if ((Integer) count > max) {
+				fail(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " issued " + count
+						+ " SQL statements, budget is " + max);
+			}
+		};
+	}
+
+	/** Runs {@code work} on this thread and fails if it issued more than {@code max} SQL statements. */
+	public static <T> T atMost(int max, Supplier<T> work) {
+		try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(true)) {
+			T result = work.get();
+			if (scope.count() > max) {
+				Map.Entry<String, Integer> top = scope.mostRepeated();
+				fail("Issued " + scope.count() + " SQL statements, budget is " + max + "; most repeated " + top.getValue()
+						+ "x: " + top.getKey());
+			}
+			return result;
+		}
+	}
+
+	public static void atMost(int max, Runnable work) {
+		atMost(max, () -> {
+			work.run();
+			return null;
+		});
+	}
+}
@@ -6,7 +6,7 @@ import { Navbar } from "@/components/navbar"
 import { Button } from "@/components/ui/button"
 import { Input } from "@/components/ui/input"
 import { getCurrentUser } from "@/lib/storage"
-import { getAllPostsAPI } from "@/lib/API/postAPI"
+import { getEveryPostAPI } from "@/lib/API/postAPI"
 import { userApi } from "@/lib/API/userAPI"
 import { Pencil, Trash2, Star, Calendar, Search, Filter } from "lucide-react"
 import { deletePostAPI } from "@/lib/API/postAPI";
@@ -46,7 +46,8 @@ export default function DashboardPage() {
 
     useEffect(() => {
         async function load() {
-            const allPosts = await getAllPostsAPI()
+            // search, filters and paging below are client-side, so load every post (drafts come last)
+            const allPosts = await getEveryPostAPI()
 
             const userIds: number[] = Array.from(
                 new Set(allPosts.map((p: any) => Number(p.authorId)))
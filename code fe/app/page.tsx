@@ -34,7 +34,7 @@ export default function Home() {
       const mapped: BlogPost[] = data.map((p: any) => ({
         id: String(p.postId),
         title: p.title,
-        excerpt: p.content?.substring(0, 100) ?? "", // note: short preview
+        excerpt: p.excerpt ?? p.content?.substring(0, 100) ?? "", // note: short preview
         content: p.content,
 
         authorId: String(p.authorId),
@@ -11,7 +11,8 @@ import { getCurrentUser } from "@/lib/storage";
 import { getPostByIdAPI, deletePostAPI } from "@/lib/API/postAPI";
 
 import {
-  getCommentsByPostAPI,
+  getCommentPageAPI,
+  getRepliesAPI,
   createCommentAPI,
   deleteCommentAPI,
 } from "@/lib/API/commentAPI";
@@ -24,6 +25,9 @@ import "react-medium-image-zoom/dist/styles.css";
 
 const BASE = "http://localhost:8080";
 const fix = (u: string) => (u?.startsWith("http") ? u : `${BASE}${u}`);
+// "/uploads/a.jpg 480w, /uploads/b.jpg 960w" -> absolute URLs; undefined until the resized copies exist
+const srcSet = (s?: string | null) =>
+  s ? s.split(", ").map((c) => fix(c)).join(", ") : undefined;
 
 export default function PostDetailPage() {
   const params = useParams();
@@ -32,6 +36,9 @@ export default function PostDetailPage() {
 
   const [post, setPost] = useState<any>(null);
   const [comments, setComments] = useState<any[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  // loaded replies per comment id, fetched when the thread is opened
+  const [replies, setReplies] = useState<Record<number, { items: any[]; nextCursor: string | null }>>({});
   const [currentUser, setCurrentUser] = useState<any>(null);
 
   const [commentText, setCommentText] = useState("");
@@ -53,8 +60,7 @@ export default function PostDetailPage() {
       const p = await getPostByIdAPI(postId);
       setPost(p);
 
-      const c = await getCommentsByPostAPI(postId);
-      setComments(c);
+      await loadComments();
 
       setLoading(false);
     };
@@ -62,6 +68,38 @@ export default function PostDetailPage() {
     load();
   }, [postId]);
 
+  const loadComments = async () => {
+    const page = await getCommentPageAPI(postId);
+    setComments(page.items);
+    setNextCursor(page.nextCursor);
+    setReplies({});
+  };
+
+  const loadMoreComments = async () => {
+    if (!nextCursor) return;
+    const page = await getCommentPageAPI(postId, nextCursor);
+    setComments((prev) => [...prev, ...page.items]);
+    setNextCursor(page.nextCursor);
+  };
+
+  const loadReplies = async (id: number, more = false) => {
+    const cursor = more ? replies[id]?.nextCursor : null;
+    const page = await getRepliesAPI(id, cursor);
+    setReplies((prev) => ({
+      ...prev,
+      [id]: {
+        items: more ? [...(prev[id]?.items ?? []), ...page.items] : page.items,
+        nextCursor: page.nextCursor,
+      },
+    }));
+  };
+
+  // re-read whichever list the comment lives in
+  const reloadThread = async (parentId: number | null) => {
+    if (parentId) await loadReplies(parentId);
+    else await loadComments();
+  };
+
   const sendComment = async (e: any) => {
     e.preventDefault();
     if (!currentUser) return router.push("/auth");
@@ -76,7 +114,7 @@ export default function PostDetailPage() {
 
     setCommentText("");
     setReplyTo(null);
-    setComments(await getCommentsByPostAPI(postId));
+    await reloadThread(replyTo);
   };
 
   const confirmDeletePost = async () => {
@@ -89,6 +127,69 @@ export default function PostDetailPage() {
     }
   };
 
+  const renderComment = (c: any) => (
+    <div
+      key={c.id}
+      className={`p-4 rounded-lg border ${c.parentId ? "ml-6 border-l-4 border-primary" : "border-border"
+        }`}
+    >
+      <div className="flex items-center gap-2 mb-2">
+        <img
+          src={`https://api.dicebear.com/7.x/identicon/svg?seed=${c.userId}`}
+          className="w-8 h-8 rounded-full"
+        />
+        <span className="font-medium">{c.authorDisplayName || c.authorUsername || `User #${c.userId}`}</span>
+        <span className="text-xs text-muted-foreground">
+          {new Date(c.createdAt).toLocaleDateString()}
+        </span>
+      </div>
+
+      <p className="mb-3">{c.content}</p>
+
+      <div className="flex gap-3 text-muted-foreground text-sm">
+        <button
+          className="hover:text-primary"
+          onClick={() => {
+            setReplyTo(c.id);
+            setCommentText(`@${c.authorUsername || `User${c.userId}`} `);
+          }}
+        >
+          Reply
+        </button>
+
+        {c.replyCount > 0 && !replies[c.id] && (
+          <button className="hover:text-primary" onClick={() => loadReplies(c.id)}>
+            View {c.replyCount} {c.replyCount === 1 ? "reply" : "replies"}
+          </button>
+        )}
+
+        {currentUser &&
+          (currentUser.id == c.userId || currentUser.role == "admin") && (
+            <button
+              className="hover:text-red-500"
+              onClick={async () => {
+                await deleteCommentAPI(c.id);
+                await reloadThread(c.parentId);
+              }}
+            >
+              Delete
+            </button>
+          )}
+      </div>
+
+      {replies[c.id] && (
+        <div className="space-y-3 mt-4">
+          {replies[c.id].items.map((r) => renderComment(r))}
+          {replies[c.id].nextCursor && (
+            <button className="ml-6 text-sm text-muted-foreground hover:text-primary" onClick={() => loadReplies(c.id, true)}>
+              Load more replies
+            </button>
+          )}
+        </div>
+      )}
+    </div>
+  );
+
   if (loading)
     return (
       <>
@@ -174,6 +275,8 @@ export default function PostDetailPage() {
                   <Zoom>
                     <img
                       src={fix(img.imageUrl)}
+                      srcSet={srcSet(img.srcset)}
+                      sizes="(max-width: 896px) 100vw, 896px"
                       className="h-full w-full object-cover rounded-md"
                     />
                   </Zoom>
@@ -242,52 +345,14 @@ export default function PostDetailPage() {
 
           {/* COMMENT LIST */}
           <div className="space-y-5">
-            {comments.map((c) => (
-              <div
-                key={c.id}
-                className={`p-4 rounded-lg border ${c.parentId ? "ml-6 border-l-4 border-primary" : "border-border"
-                  }`}
-              >
-                <div className="flex items-center gap-2 mb-2">
-                  <img
-                    src={`https://api.dicebear.com/7.x/identicon/svg?seed=${c.userId}`}
-                    className="w-8 h-8 rounded-full"
-                  />
-                  <span className="font-medium">User #{c.userId}</span>
-                  <span className="text-xs text-muted-foreground">
-                    {new Date(c.createdAt).toLocaleDateString()}
-                  </span>
-                </div>
-
-                <p className="mb-3">{c.content}</p>
-
-                <div className="flex gap-3 text-muted-foreground text-sm">
-                  <button
-                    className="hover:text-primary"
-                    onClick={() => {
-                      setReplyTo(c.id);
-                      setCommentText(`@User${c.userId} `);
-                    }}
-                  >
-                    Reply
-                  </button>
-
-                  {currentUser &&
-                    (currentUser.id == c.userId || currentUser.role == "admin") && (
-                      <button
-                        className="hover:text-red-500"
-                        onClick={async () => {
-                          await deleteCommentAPI(c.id);
-                          setComments(await getCommentsByPostAPI(postId));
-                        }}
-                      >
-                        Delete
-                      </button>
-                    )}
-                </div>
-              </div>
-            ))}
+            {comments.map((c) => renderComment(c))}
           </div>
+
+          {nextCursor && (
+            <Button variant="outline" className="mt-6" onClick={loadMoreComments}>
+              Load more comments
+            </Button>
+          )}
         </div>
       </main>
     </>
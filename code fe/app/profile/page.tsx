@@ -6,7 +6,7 @@ import Link from "next/link"
 import { Navbar } from "@/components/navbar"
 import type { BlogPost, User } from "@/lib/types"
 import { getCurrentUser, saveAuth, convertBackendUser } from "@/lib/storage"
-import { getAllPostsAPI } from "@/lib/API/postAPI"
+import { getEveryPostAPI } from "@/lib/API/postAPI"
 import { userApi } from "@/lib/API/userAPI"
 
 import { Button } from "@/components/ui/button"
@@ -95,13 +95,12 @@ export default function ProfilePage() {
             try {
                 const u = getCurrentUser()
                 if (!u) return
-                const all = await getAllPostsAPI()
-                const mine = all.filter((p: any) => Number(p.authorId) === Number(u.id))
+                const mine = await getEveryPostAPI({ authorId: Number(u.id) })
 
                 const mapped: BlogPost[] = mine.map((p: any) => ({
                     id: String(p.postId),
                     title: p.title,
-                    excerpt: p.content?.substring(0, 100) ?? "",
+                    excerpt: p.excerpt ?? p.content?.substring(0, 100) ?? "",
                     content: p.content,
                     authorId: String(p.authorId),
                     authorName: p.authorName ?? "",
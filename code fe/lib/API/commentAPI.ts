@@ -10,8 +10,19 @@ export async function createCommentAPI(data: {
   return res.data;
 }
 
-export async function getCommentsByPostAPI(postId: number | string) {
-  const res = await api.get(`/comments/post/${postId}`);
+// { items, nextCursor, hasMore }: top-level comments oldest first, each with its replyCount
+export async function getCommentPageAPI(postId: number | string, cursor?: string | null, limit = 20) {
+  const res = await api.get(`/comments/post/${postId}/page`, {
+    params: { limit, ...(cursor ? { cursor } : {}) },
+  });
+  return res.data;
+}
+
+// same page shape, direct replies of one comment
+export async function getRepliesAPI(commentId: number | string, cursor?: string | null, limit = 20) {
+  const res = await api.get(`/comments/${commentId}/replies`, {
+    params: { limit, ...(cursor ? { cursor } : {}) },
+  });
   return res.data;
 }
 
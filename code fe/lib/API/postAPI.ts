@@ -18,11 +18,41 @@ export const createPostAPI = async (post: CreatePostRequest, files: File[]) => {
   return res.data;
 };
 
-export const getAllPostsAPI = async () => {
-  const res = await api.get("/posts");
+export interface PostListParams {
+  cursor?: string;
+  limit?: number;
+  status?: number;
+  category?: string;
+  featured?: boolean;
+  authorId?: number;
+}
+
+// One cursor page; pass nextCursor back as `cursor` for the next one (null on the last page)
+export const getPostsPageAPI = async (
+  params?: PostListParams
+): Promise<{ items: any[]; nextCursor: string | null }> => {
+  const res = await api.get("/posts", { params });
   return res.data;
 };
 
+// First page only (newest posts)
+export const getAllPostsAPI = async (params?: PostListParams) => {
+  const page = await getPostsPageAPI(params);
+  return page.items;
+};
+
+// Every matching post, following nextCursor to the end
+export const getEveryPostAPI = async (params?: Omit<PostListParams, "cursor" | "limit">) => {
+  const all: any[] = [];
+  let cursor: string | undefined;
+  do {
+    const page = await getPostsPageAPI({ ...params, cursor, limit: 100 });
+    all.push(...page.items);
+    cursor = page.nextCursor ?? undefined;
+  } while (cursor);
+  return all;
+};
+
 export const getPostByIdAPI = async (id: number) => {
   const res = await api.get(`/posts/${id}`);
   const p = res.data;
@@ -44,6 +74,7 @@ export const getPostByIdAPI = async (id: number) => {
       ? p.images.map((img: any) => ({
         id: img.id,
         imageUrl: img.imageUrl,
+        srcset: img.srcset ?? null,
       }))
       : [],
   };